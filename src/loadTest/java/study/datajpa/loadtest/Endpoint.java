@@ -0,0 +1,54 @@
+package study.datajpa.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * 부하를 거는 엔드포인트. 요청마다 무작위 id/페이지를 고른다.
+ */
+enum Endpoint {
+    // 페이지 조회 (one-indexed-parameters: true 이므로 1부터)
+    MEMBERS("members") {
+        @Override
+        String path(long[] ids, SplittableRandom random) {
+            int pages = Math.max(1, ids.length / PAGE_SIZE);
+            return "/members?page=" + (random.nextInt(pages) + 1) + "&size=" + PAGE_SIZE;
+        }
+    },
+    // MemberCache를 거치는 단건 조회
+    MEMBER("member") {
+        @Override
+        String path(long[] ids, SplittableRandom random) {
+            return "/members/" + ids[random.nextInt(ids.length)];
+        }
+    },
+    // 도메인 클래스 컨버터(CachedMemberConverter)를 거치는 단건 조회
+    MEMBERS2("members2") {
+        @Override
+        String path(long[] ids, SplittableRandom random) {
+            return "/members2/" + ids[random.nextInt(ids.length)];
+        }
+    };
+
+    private static final int PAGE_SIZE = 20;
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    abstract String path(long[] ids, SplittableRandom random);
+
+    static Endpoint of(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 엔드포인트: " + key);
+    }
+}
@@ -0,0 +1,123 @@
+package study.datajpa.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * open model 부하 생성기.
+ * <p>
+ * 요청 도착 간격을 지수 분포(포아송 도착)로 뽑아서, 서버 응답을 기다리지 않고 정해진 시각에 요청을 보낸다.
+ * 지연 시간은 실제 전송 시각이 아니라 보냈어야 할 시각(intended start)부터 측정하므로,
+ * 서버가 느려져서 요청이 밀리는 시간(coordinated omission)도 결과에 포함된다.
+ */
+class LoadGenerator {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final long[] ids;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadGenerator(LoadTestConfig config, URI baseUri, long[] ids) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.ids = ids;
+    }
+
+    Map<Endpoint, EndpointStats> run() throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        config.mix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+        Endpoint[] weighted = weightedEndpoints();
+
+        SplittableRandom random = new SplittableRandom(config.seed());
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long intended = start;
+            while (intended < end) {
+                parkUntil(intended);
+                Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+                EndpointStats target = intended >= measureFrom ? stats.get(endpoint) : null;
+                URI uri = baseUri.resolve(endpoint.path(ids, random));
+                long scheduledAt = intended;
+                if (inFlight.tryAcquire()) {
+                    executor.execute(() -> {
+                        try {
+                            send(uri, scheduledAt, target);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } else if (target != null) {
+                    target.dropped.increment();
+                }
+                intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            }
+        }   // close()에서 보낸 요청이 모두 끝날 때까지 기다림
+        return stats;
+    }
+
+    private void send(URI uri, long intended, EndpointStats target) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        boolean success;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            success = response.statusCode() < 400;
+        } catch (Exception e) {
+            success = false;
+        }
+        if (target == null) {
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+        target.histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            target.errors.increment();
+        }
+    }
+
+    private Endpoint[] weightedEndpoints() {
+        return config.mix().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Endpoint[]::new);
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    static class EndpointStats {
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+}
@@ -0,0 +1,109 @@
+package study.datajpa.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+import study.datajpa.loadtest.LoadGenerator.EndpointStats;
+
+/**
+ * 부하 테스트 결과. 커밋 간 비교를 위해 JSON으로 저장하고, baseline이 있으면 차이를 함께 출력한다.
+ */
+record LoadReport(String commit, Instant finishedAt, int members, double rate, long durationSeconds,
+                  Map<String, Result> endpoints, Result total) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * @param throughput 측정 구간 초당 완료 요청 수
+     * @param p50Ms      지연 시간 (밀리초)
+     */
+    record Result(long requests, long errors, long dropped, double throughput,
+                  double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        static Result of(Histogram histogram, long errors, long dropped, double seconds) {
+            return new Result(histogram.getTotalCount(), errors, dropped, histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    static LoadReport of(LoadTestConfig config, Map<Endpoint, EndpointStats> stats) {
+        double seconds = config.duration().toMillis() / 1000.0;
+        Map<String, Result> endpoints = new LinkedHashMap<>();
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        long dropped = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats s = entry.getValue();
+            endpoints.put(entry.getKey().key(),
+                    Result.of(s.histogram, s.errors.sum(), s.dropped.sum(), seconds));
+            all.add(s.histogram);
+            errors += s.errors.sum();
+            dropped += s.dropped.sum();
+        }
+        return new LoadReport(config.commit(), Instant.now(), config.members(), config.rate(),
+                config.duration().toSeconds(), endpoints, Result.of(all, errors, dropped, seconds));
+    }
+
+    static LoadReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadReport.class);
+    }
+
+    // 파일명: <커밋>-<종료시각>.json
+    Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(commit + "-" + finishedAt.toEpochMilli() + ".json");
+        MAPPER.writeValue(file.toFile(), this);
+        return file;
+    }
+
+    void print(PrintStream out, LoadReport baseline) {
+        out.printf("%n[load test] commit=%s members=%d rate=%.0f/s duration=%ds%n",
+                commit, members, rate, durationSeconds);
+        out.printf("%-10s %9s %7s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "dropped", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        endpoints.forEach((name, result) -> print(out, name, result));
+        print(out, "total", total);
+
+        if (baseline != null) {
+            out.printf("%n[vs %s] p99 / p999 / throughput 변화%n", baseline.commit());
+            endpoints.forEach((name, result) -> {
+                Result before = baseline.endpoints().get(name);
+                if (before != null) {
+                    printDelta(out, name, before, result);
+                }
+            });
+            printDelta(out, "total", baseline.total(), total);
+        }
+    }
+
+    private static void print(PrintStream out, String name, Result r) {
+        out.printf("%-10s %9d %7d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, r.requests(), r.errors(), r.dropped(), r.throughput(), r.p50Ms(), r.p99Ms(), r.p999Ms(),
+                r.maxMs());
+    }
+
+    private static void printDelta(PrintStream out, String name, Result before, Result after) {
+        out.printf("%-10s %+8.1f%% %+8.1f%% %+8.1f%%%n", name,
+                change(before.p99Ms(), after.p99Ms()), change(before.p999Ms(), after.p999Ms()),
+                change(before.throughput(), after.throughput()));
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+}
@@ -0,0 +1,70 @@
+package study.datajpa.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * 부하 테스트 설정. gradle에서 -Ploadtest.xxx=값 으로 넘긴 시스템 프로퍼티를 읽는다.
+ *
+ * @param members     적재할 회원 수
+ * @param teams       적재할 팀 수
+ * @param rate        초당 요청 도착률 (open model. 응답 속도와 상관없이 이 비율로 요청을 보냄)
+ * @param warmup      측정에서 제외하는 워밍업 시간
+ * @param duration    측정 시간
+ * @param mix         엔드포인트별 요청 비중 (ex. members:50,member:40,members2:10)
+ * @param maxInFlight 동시에 처리 중인 요청 상한. 넘으면 보내지 않고 dropped로 집계
+ * @param poolSize    커넥션 풀 크기
+ * @param seed        요청 순서 재현을 위한 난수 시드
+ * @param reportDir   리포트 저장 위치
+ * @param commit      리포트에 기록할 커밋
+ * @param baseline    비교할 이전 리포트 (없으면 null)
+ */
+record LoadTestConfig(int members, int teams, double rate, Duration warmup, Duration duration,
+                      Map<Endpoint, Integer> mix, int maxInFlight, int poolSize, long seed,
+                      Path reportDir, String commit, Path baseline) {
+
+    LoadTestConfig {
+        if (members <= 0 || rate <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("loadtest.members, loadtest.rate, loadtest.max-in-flight는 0보다 커야 합니다.");
+        }
+    }
+
+    static LoadTestConfig from(Properties properties) {
+        String baseline = properties.getProperty("loadtest.baseline");
+        return new LoadTestConfig(
+                Integer.parseInt(properties.getProperty("loadtest.members", "10000")),
+                Integer.parseInt(properties.getProperty("loadtest.teams", "100")),
+                Double.parseDouble(properties.getProperty("loadtest.rate", "200")),
+                DurationStyle.detectAndParse(properties.getProperty("loadtest.warmup", "10s")),
+                DurationStyle.detectAndParse(properties.getProperty("loadtest.duration", "30s")),
+                parseMix(properties.getProperty("loadtest.mix", "members:50,member:40,members2:10")),
+                Integer.parseInt(properties.getProperty("loadtest.max-in-flight", "1000")),
+                Integer.parseInt(properties.getProperty("loadtest.pool-size", "10")),
+                Long.parseLong(properties.getProperty("loadtest.seed", "42")),
+                Path.of(properties.getProperty("loadtest.report-dir", "build/reports/loadtest")),
+                properties.getProperty("loadtest.commit", "unknown"),
+                baseline == null || baseline.isBlank() ? null : Path.of(baseline));
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix 형식이 잘못되었습니다: " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(Endpoint.of(pair[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix에 요청 비중이 하나 이상 있어야 합니다.");
+        }
+        return mix;
+    }
+}
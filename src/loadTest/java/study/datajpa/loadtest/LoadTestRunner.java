@@ -0,0 +1,107 @@
+package study.datajpa.loadtest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * /members, /members/{id}, /members2/{id} 부하 테스트.
+ * <p>
+ * 1. DataJpaApplication을 인메모리 H2, 임의 포트로 띄운다.
+ * 2. loadtest.members / loadtest.teams 만큼 데이터를 적재한다.
+ * 3. 워밍업 후 측정 구간의 엔드포인트별 p50/p99/p999 지연 시간과 처리량을 리포트로 남긴다.
+ * <p>
+ * 실행: ./gradlew loadTest -Ploadtest.rate=300 -Ploadtest.duration=60s -Ploadtest.baseline=build/reports/loadtest/xxx.json
+ * 애플리케이션 설정은 -Ploadtest.app.spring.xxx=값 처럼 loadtest.app. 접두사를 붙여서 바꿀 수 있다.
+ */
+public class LoadTestRunner {
+    private static final String APP_PREFIX = "loadtest.app.";
+    private static final int SEED_CHUNK_SIZE = 1000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.from(System.getProperties());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .properties(applicationProperties(config, System.getProperties()))
+                .run(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            long[] ids = seed(context, config);
+
+            System.out.printf("[load test] seeded %d members, %d teams. warmup %ds, measuring %ds at %.0f req/s%n",
+                    ids.length, config.teams(), config.warmup().toSeconds(), config.duration().toSeconds(),
+                    config.rate());
+            LoadGenerator generator = new LoadGenerator(config, URI.create("http://localhost:" + port), ids);
+            LoadReport report = LoadReport.of(config, generator.run());
+
+            LoadReport baseline = config.baseline() == null ? null : LoadReport.read(config.baseline());
+            report.print(System.out, baseline);
+            System.out.println("[load test] report: " + report.write(config.reportDir()).toAbsolutePath());
+        }
+    }
+
+    private static Map<String, Object> applicationProperties(LoadTestConfig config, Properties system) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.hikari.maximum-pool-size", config.poolSize());
+        properties.put("reactive-read.r2dbc-url", "r2dbc:h2:mem:///loadtest?options=MODE=MySQL;DB_CLOSE_DELAY=-1");
+        // 로그 출력 비용이 측정값에 섞이지 않도록 SQL 로그는 끔
+        properties.put("decorator.datasource.p6spy.enable-logging", false);
+        properties.put("spring.jpa.properties.hibernate.format_sql", false);
+        properties.put("logging.level.root", "warn");
+        properties.put("logging.level.org.hibernate.SQL", "warn");
+        for (String name : system.stringPropertyNames()) {
+            if (name.startsWith(APP_PREFIX)) {
+                properties.put(name.substring(APP_PREFIX.length()), system.getProperty(name));
+            }
+        }
+        return properties;
+    }
+
+    private static long[] seed(ConfigurableApplicationContext context, LoadTestConfig config) {
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+
+        List<Long> teamIds = tx.execute(status -> {
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < config.teams(); i++) {
+                teams.add(new Team("team" + i));
+            }
+            return teamRepository.saveAll(teams).stream().map(Team::getId).toList();
+        });
+
+        // 청크 단위로 트랜잭션을 나눠서 영속성 컨텍스트가 커지지 않게 함
+        for (int from = 0; from < config.members(); from += SEED_CHUNK_SIZE) {
+            int start = from;
+            int end = Math.min(from + SEED_CHUNK_SIZE, config.members());
+            tx.executeWithoutResult(status -> {
+                List<Member> members = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    Team team = teamIds.isEmpty() ? null
+                            : teamRepository.getReferenceById(teamIds.get(i % teamIds.size()));
+                    members.add(new Member("member" + i, i % 100, team));
+                }
+                memberRepository.saveAll(members);
+            });
+        }
+
+        return context.getBean(JdbcTemplate.class)
+                .queryForList("select member_id from member", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -4,12 +4,16 @@ import java.util.Optional;
 import java.util.UUID;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 // @EnableJpaAuditing(modifyOnCreate = false): 업데이트 값은 null로 설정 (권장하지 않음)
 @EnableJpaAuditing
+@EnableCaching
+@EnableScheduling
 @SpringBootApplication
 //@EnableJpaRepositories(basePackages = "study.datajpa.repository")
 // spring boot를 사용했다면 @EnableJpaRepositories를 사용하지 않아도,
@@ -23,10 +27,10 @@ public class DataJpaApplication {
 
     // @CreatedBy, @LastModifiedBy가 호출될 때마다 auditorProvider를 호출해서 결과물을 가져감
     @Bean
-    public AuditorAware<String> auditorProvider() {
+    public AuditorAware<UUID> auditorProvider() {
         // spring security
-        // http 세션 혹은 JWT에서 수정자 이름 정보를 추출해와서 반환해주면 됨
-        return () -> Optional.of(UUID.randomUUID().toString());
+        // http 세션 혹은 JWT에서 수정자 id를 추출해와서 반환해주면 됨
+        return () -> Optional.of(UUID.randomUUID());
     }
 
 }
@@ -0,0 +1,45 @@
+package study.datajpa;
+
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * 조회 전용 reactive 경로에서 사용하는 R2DBC 설정. 쓰기는 전부 JPA로 처리한다.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    // ConnectionFactory를 빈으로 등록하면 DataSourceAutoConfiguration이 동작하지 않으므로
+    // ConnectionFactory 타입이 아닌 ReadConnectionFactory로 감싸서 등록한다. (종료 시 커넥션 풀 정리)
+    @Bean
+    public ReadConnectionFactory readConnectionFactory(@Value("${reactive-read.r2dbc-url}") String url) {
+        return new ReadConnectionFactory(ConnectionFactories.get(url));
+    }
+
+    @Bean
+    public DatabaseClient readDatabaseClient(ReadConnectionFactory readConnectionFactory) {
+        return DatabaseClient.create(readConnectionFactory.connectionFactory());
+    }
+
+    /**
+     * 조회 전용 ConnectionFactory. r2dbc:pool URL이면 컨텍스트 종료 시 풀의 커넥션을 닫는다.
+     */
+    public record ReadConnectionFactory(ConnectionFactory connectionFactory) implements DisposableBean {
+        private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+        @Override
+        public void destroy() {
+            if (connectionFactory instanceof Closeable closeable) {
+                Mono.from(closeable.close()).block(CLOSE_TIMEOUT);
+            }
+        }
+    }
+}
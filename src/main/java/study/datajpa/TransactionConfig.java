@@ -0,0 +1,32 @@
+package study.datajpa;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import study.datajpa.support.DeadlineAwareJpaTransactionManager;
+
+/**
+ * 스프링 부트 기본 JpaTransactionManager 대신 요청 마감 시각을 반영하는 트랜잭션 매니저 등록
+ * spring.transaction 부트 설정은 TransactionManagerCustomizers로 그대로 적용된다.
+ * 기본 timeout은 두지 않는다. 요청 스레드의 트랜잭션만 RequestDeadline으로 제한되고 백그라운드 작업은 제한되지 않는다.
+ * <p>
+ * 트랜잭션 advice는 TransactionFlushModeAspect(LOWEST_PRECEDENCE)보다 바깥에서 실행되도록 순서를 지정한다.
+ */
+@Configuration
+@EnableTransactionManagement(proxyTargetClass = true, order = TransactionConfig.TRANSACTION_ADVICE_ORDER)
+public class TransactionConfig {
+    public static final int TRANSACTION_ADVICE_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DeadlineAwareJpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
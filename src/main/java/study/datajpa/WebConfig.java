@@ -0,0 +1,32 @@
+package study.datajpa;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.datajpa.cache.CachedMemberConverter;
+import study.datajpa.cache.MemberBatchConverter;
+import study.datajpa.cache.MemberDtoConverter;
+import study.datajpa.support.RequestDeadlineInterceptor;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    private final CachedMemberConverter cachedMemberConverter;
+    private final MemberDtoConverter memberDtoConverter;
+    private final MemberBatchConverter memberBatchConverter;
+    private final RequestDeadlineInterceptor requestDeadlineInterceptor;
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(cachedMemberConverter);
+        registry.addConverter(memberDtoConverter);
+        registry.addConverter(memberBatchConverter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestDeadlineInterceptor);
+    }
+}
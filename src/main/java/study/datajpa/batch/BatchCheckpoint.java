@@ -0,0 +1,53 @@
+package study.datajpa.batch;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 배치 파티션별 진행 상황. 청크 처리와 같은 트랜잭션에서 갱신되므로,
+ * 중간에 장애가 나도 다시 실행하면 마지막으로 커밋된 청크 다음부터 이어서 처리한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"job_name", "partition_no"}))
+public class BatchCheckpoint {
+    @Id
+    @GeneratedValue
+    @Column(name = "batch_checkpoint_id")
+    private Long id;
+
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    // 파티션 범위: (lastProcessedId 초기값 = fromId - 1) ~ toId
+    private Long fromId;
+    private Long toId;
+    private Long lastProcessedId;
+    private boolean completed;
+
+    public BatchCheckpoint(String jobName, int partitionNo, Long fromId, Long toId) {
+        this.jobName = jobName;
+        this.partitionNo = partitionNo;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.lastProcessedId = fromId - 1;
+    }
+
+    public void advance(Long lastProcessedId, boolean completed) {
+        this.lastProcessedId = lastProcessedId;
+        this.completed = completed;
+    }
+}
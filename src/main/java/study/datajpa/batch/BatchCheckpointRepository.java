@@ -0,0 +1,15 @@
+package study.datajpa.batch;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpoint, Long> {
+    List<BatchCheckpoint> findByJobNameOrderByPartitionNo(String jobName);
+
+    @Modifying
+    @Query("delete from BatchCheckpoint c where c.jobName = :jobName")
+    int deleteByJobName(@Param("jobName") String jobName);
+}
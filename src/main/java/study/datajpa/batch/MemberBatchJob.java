@@ -0,0 +1,20 @@
+package study.datajpa.batch;
+
+/**
+ * Member 테이블 전체를 대상으로 하는 배치 작업 정의.
+ *
+ * @param name       작업 이름. 체크포인트를 구분하는 키이므로 같은 이름으로 다시 실행하면 이어서 진행한다.
+ * @param partitions id 범위를 나눌 파티션 수
+ * @param chunkSize  한 트랜잭션에서 처리할 건수
+ * @param processor  청크 단위 작업
+ */
+public record MemberBatchJob(String name, int partitions, int chunkSize, MemberChunkProcessor processor) {
+    public MemberBatchJob {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("job name is required");
+        }
+        if (partitions < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("partitions and chunkSize must be positive");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package study.datajpa.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * Member 테이블 전체를 id 범위로 나눠서(파티션) 병렬로 처리하는 배치 실행기.
+ * <p>
+ * - 파티션마다 하나의 작업 스레드가 id 순서대로 청크를 읽는다. (keyset 방식이라 offset 페이징처럼 뒤로 갈수록 느려지지 않음)
+ * - 청크마다 별도 트랜잭션을 사용하므로 영속성 컨텍스트가 커지지 않고, 락도 청크 단위로만 잡힌다.
+ * - 청크 처리와 체크포인트 갱신이 같은 트랜잭션이므로, 실패 후 같은 작업 이름으로 다시 실행하면 이어서 처리한다.
+ * - 청크 사이에 pauseBetweenChunks만큼 쉬어서 온라인 트래픽이 쓸 DB 자원을 남겨둔다.
+ */
+@Slf4j
+@Component
+public class MemberBatchRunner {
+    private final MemberRepository memberRepository;
+    private final BatchCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final Duration pauseBetweenChunks;
+
+    public MemberBatchRunner(MemberRepository memberRepository,
+                             BatchCheckpointRepository checkpointRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${member-batch.workers:4}") int workers,
+                             @Value("${member-batch.pause-between-chunks:20ms}") Duration pauseBetweenChunks) {
+        this.memberRepository = memberRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = workers;
+        this.pauseBetweenChunks = pauseBetweenChunks;
+    }
+
+    /**
+     * @return 이번 실행에서 처리한 Member 수
+     */
+    public long run(MemberBatchJob job) {
+        List<BatchCheckpoint> checkpoints = checkpointRepository.findByJobNameOrderByPartitionNo(job.name());
+        if (checkpoints.isEmpty()) {
+            checkpoints = plan(job);
+        }
+        List<BatchCheckpoint> remaining = checkpoints.stream()
+                .filter(checkpoint -> !checkpoint.isCompleted())
+                .toList();
+        if (remaining.isEmpty()) {
+            return 0;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, remaining.size()));
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (BatchCheckpoint checkpoint : remaining) {
+                futures.add(executor.submit(() -> runPartition(job, checkpoint.getId())));
+            }
+            return await(job, futures);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // 완료된 작업을 처음부터 다시 실행하려면 체크포인트를 지운다.
+    public void reset(String jobName) {
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.deleteByJobName(jobName));
+    }
+
+    private List<BatchCheckpoint> plan(MemberBatchJob job) {
+        return transactionTemplate.execute(status -> {
+            Long minId = memberRepository.findMinId();
+            Long maxId = memberRepository.findMaxId();
+            List<BatchCheckpoint> checkpoints = new ArrayList<>();
+            if (minId == null) {
+                // 대상이 없어도 완료된 파티션을 남겨서 다시 실행했을 때 중복 계획하지 않음
+                BatchCheckpoint empty = new BatchCheckpoint(job.name(), 0, 1L, 0L);
+                empty.advance(0L, true);
+                checkpoints.add(empty);
+            } else {
+                long span = maxId - minId + 1;
+                int partitions = (int) Math.min(job.partitions(), span);
+                long size = (span + partitions - 1) / partitions;
+                for (int i = 0; i < partitions; i++) {
+                    long from = minId + i * size;
+                    long to = Math.min(from + size - 1, maxId);
+                    checkpoints.add(new BatchCheckpoint(job.name(), i, from, to));
+                }
+            }
+            return checkpointRepository.saveAll(checkpoints);
+        });
+    }
+
+    private long runPartition(MemberBatchJob job, Long checkpointId) throws InterruptedException {
+        long processed = 0;
+        while (true) {
+            Integer chunkCount = transactionTemplate.execute(status -> {
+                BatchCheckpoint checkpoint = checkpointRepository.findById(checkpointId).orElseThrow();
+                List<Member> chunk = memberRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                        checkpoint.getLastProcessedId(), checkpoint.getToId(), PageRequest.of(0, job.chunkSize()));
+                if (chunk.isEmpty()) {
+                    checkpoint.advance(checkpoint.getLastProcessedId(), true);
+                    return 0;
+                }
+                job.processor().process(chunk);
+                Long lastId = chunk.get(chunk.size() - 1).getId();
+                checkpoint.advance(lastId, chunk.size() < job.chunkSize() || lastId.equals(checkpoint.getToId()));
+                return chunk.size();
+            });
+            processed += chunkCount;
+            if (chunkCount < job.chunkSize()) {
+                return processed;
+            }
+            if (!pauseBetweenChunks.isZero()) {
+                Thread.sleep(pauseBetweenChunks.toMillis());
+            }
+        }
+    }
+
+    private long await(MemberBatchJob job, List<Future<Long>> futures) {
+        long processed = 0;
+        IllegalStateException failure = null;
+        for (Future<Long> future : futures) {
+            try {
+                processed += future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for job " + job.name(), e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IllegalStateException("job " + job.name()
+                            + " failed. run again with the same name to resume", e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        log.info("job {} processed {} members", job.name(), processed);
+        return processed;
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.batch;
+
+import java.util.List;
+import study.datajpa.entity.Member;
+
+/**
+ * 청크 단위 작업. 청크마다 새 트랜잭션 안에서 호출되며, 전달받은 Member는 영속 상태이므로
+ * 값을 변경하면 변경 감지로 커밋 시점에 반영된다.
+ */
+@FunctionalInterface
+public interface MemberChunkProcessor {
+    void process(List<Member> chunk);
+}
@@ -0,0 +1,26 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import study.datajpa.entity.Member;
+
+/**
+ * String(PK) -> Member 변환을 도메인 클래스 컨버터 대신 MemberCache를 거쳐서 처리한다.
+ * (String, Member) 타입 쌍이 도메인 클래스 컨버터의 (Object, Object)보다 구체적이므로 먼저 선택된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CachedMemberConverter implements Converter<String, Member> {
+    private final MemberCache memberCache;
+
+    @Override
+    public Member convert(String source) {
+        if (!StringUtils.hasText(source)) {
+            return null;
+        }
+        // 도메인 클래스 컨버터와 동일하게 없는 id면 null
+        return memberCache.findById(Long.valueOf(source.trim())).orElse(null);
+    }
+}
@@ -0,0 +1,57 @@
+package study.datajpa.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import study.datajpa.entity.Member;
+
+/**
+ * 여러 개의 PK -> Collection&lt;Member&gt; 변환을 id마다 조회하지 않고 MemberCache.findAllById 한 번으로 처리한다.
+ * ex) /members2?ids=1,2,3 또는 ?ids=1&ids=2 -> @RequestParam("ids") List&lt;Member&gt;
+ * <p>
+ * 기본 변환(StringToCollection, ArrayToCollection)은 원소마다 String -> Member 컨버터를 호출하므로 id 수만큼 조회가 나간다.
+ * 나중에 등록된 컨버터가 같은 타입 쌍에서 먼저 선택되므로 WebConfig에서 등록하면 기본 변환보다 우선한다.
+ * 없는 id는 결과에서 빠지고, 결과는 요청한 id 순서를 따른다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberBatchConverter implements ConditionalGenericConverter {
+    private final MemberCache memberCache;
+
+    @Override
+    public Set<ConvertiblePair> getConvertibleTypes() {
+        return Set.of(new ConvertiblePair(String.class, Collection.class),
+                new ConvertiblePair(String[].class, Collection.class));
+    }
+
+    @Override
+    public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+        TypeDescriptor elementType = targetType.getElementTypeDescriptor();
+        // Set 등 List를 대입할 수 없는 컬렉션은 기본 변환에 맡긴다.
+        return elementType != null && elementType.getType() == Member.class
+                && targetType.getType().isAssignableFrom(List.class);
+    }
+
+    @Override
+    public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+        if (source == null) {
+            return null;
+        }
+        String[] values = source instanceof String[] array ? array
+                : StringUtils.commaDelimitedListToStringArray((String) source);
+        List<Long> ids = Arrays.stream(values)
+                .flatMap(value -> Arrays.stream(StringUtils.commaDelimitedListToStringArray(value)))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(Long::valueOf)
+                .distinct()
+                .toList();
+        return memberCache.findAllById(ids);
+    }
+}
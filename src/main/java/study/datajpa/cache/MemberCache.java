@@ -0,0 +1,94 @@
+package study.datajpa.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.FetchPlan;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * MemberRepository.findById 앞단의 애플리케이션 캐시 (Caffeine, application.yml의 spring.cache 설정).
+ * <p>
+ * 캐시에 들어가는 Member는 준영속 상태이므로 조회용으로만 사용해야 한다. (도메인 클래스 컨버터 결과와 같은 제약)
+ * 준영속 상태에서는 지연 로딩을 할 수 없으므로, 사용할 연관관계는 member-cache.fetch-plan으로 지정해서 함께 조회한다.
+ * 변경/삭제는 MemberCacheEvictionListener, TeamCacheEvictionListener가, 벌크 연산(bulkAgePlus, Member/Team의 벌크 삭제)은
+ * MemberCacheClearer가 캐시를 비운다. 모두 커밋 전에 한 번, 트랜잭션이 끝난 뒤 한 번 더 비운다.
+ */
+@Component
+public class MemberCache {
+    public static final String CACHE_NAME = "member";
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final FetchPlan fetchPlan;
+
+    public MemberCache(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                       CacheManager cacheManager,
+                       @Value("${member-cache.fetch-plan:team}") String[] fetchPlan) {
+        this.memberRepository = memberRepository;
+        // 호출한 쪽의 영속성 컨텍스트(OSIV, 테스트 트랜잭션 등)에 묶인 엔티티가 캐시에 들어가서 여러 스레드에 공유되지 않도록
+        // 항상 새 영속성 컨텍스트에서 조회하고, 트랜잭션이 끝나면 준영속 상태가 된다.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.cacheManager = cacheManager;
+        this.fetchPlan = FetchPlan.of(fetchPlan);
+    }
+
+    // sync = true: 같은 id로 동시에 캐시 미스가 나면 한 스레드만 DB를 조회하고 나머지는 그 결과를 기다린다. (stampede 방지)
+    @Cacheable(cacheNames = CACHE_NAME, key = "#id", sync = true)
+    public Optional<Member> findById(Long id) {
+        return transactionTemplate.execute(status -> memberRepository.findById(id, fetchPlan));
+    }
+
+    /**
+     * 캐시에 없는 id만 in 쿼리 한 번으로 조회해서 캐시에 넣는다. 결과는 ids 순서, 없는 id는 제외
+     */
+    public List<Member> findAllById(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        Map<Long, Member> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Cache.ValueWrapper cached = cache == null ? null : cache.get(id);
+            if (cached == null) {
+                missing.add(id);
+            } else if (cached.get() instanceof Member member) {
+                found.put(id, member);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Member> loaded = transactionTemplate.execute(status -> memberRepository.findAll(
+                    (root, query, cb) -> root.get("id").in(missing), fetchPlan));
+            for (Member member : loaded) {
+                found.put(member.getId(), member);
+                if (cache != null) {
+                    cache.put(member.getId(), member);
+                }
+            }
+        }
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME, key = "#id")
+    public void evict(Long id) {
+    }
+
+    @CacheEvict(cacheNames = CACHE_NAME, allEntries = true)
+    public void evictAll() {
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * MemberCache 전체를 비운다. 엔티티 리스너를 거치지 않는 벌크 연산과 Team 변경에서 사용
+ * <p>
+ * @CacheEvict는 메소드가 끝나는 시점(커밋 전)에만 비우므로, 커밋 전에 다른 요청(MemberCache는 REQUIRES_NEW로 조회)이
+ * 이전 값을 다시 캐시에 올릴 수 있다. 그래서 트랜잭션이 끝난 뒤 한 번 더 비운다. (MemberCacheEvictionListener와 같은 방식)
+ * EntityManager에 의존하지 않으므로 엔티티 리스너에서도 주입받을 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCacheClearer {
+    private final CacheManager cacheManager;
+
+    public void clear() {
+        Cache cache = cacheManager.getCache(MemberCache.CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        cache.clear();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.clear();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package study.datajpa.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+
+/**
+ * Member 저장/변경/삭제 시 MemberCache에서 해당 id를 제거하는 엔티티 리스너.
+ * 하이버네이트가 스프링 빈으로 생성하므로(SpringBeanContainer) 주입을 받을 수 있다.
+ * 단, 엔티티 매니저 팩토리 생성 중에 만들어지므로 리포지토리처럼 EntityManager에 의존하는 빈은 주입받으면 안 된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCacheEvictionListener {
+    private final CacheManager cacheManager;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Member member) {
+        Cache cache = cacheManager.getCache(MemberCache.CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        Long id = member.getId();
+        cache.evict(id);
+
+        // flush ~ 커밋 사이에 다른 요청이 아직 커밋 전의(이전) 값을 다시 캐시에 올릴 수 있으므로 트랜잭션이 끝난 뒤 한 번 더 제거
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(id);
+                }
+            });
+        }
+    }
+}
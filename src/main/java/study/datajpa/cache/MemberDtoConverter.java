@@ -0,0 +1,26 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * String(PK) -> MemberDto 변환. 엔티티 대신 필요한 컬럼만 조회하는 읽기 전용 경로
+ * 준영속 엔티티의 지연 로딩 문제가 없고 영속성 컨텍스트에도 올라가지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberDtoConverter implements Converter<String, MemberDto> {
+    private final MemberRepository memberRepository;
+
+    @Override
+    public MemberDto convert(String source) {
+        if (!StringUtils.hasText(source)) {
+            return null;
+        }
+        return memberRepository.findMemberDtoById(Long.valueOf(source.trim())).orElse(null);
+    }
+}
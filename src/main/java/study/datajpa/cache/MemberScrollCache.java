@@ -0,0 +1,78 @@
+package study.datajpa.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.ScrollResponse;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * /members/scroll 용 window 캐시.
+ * <p>
+ * 한 window를 응답할 때 다음 window를 미리 조회(prefetch)해서 클라이언트별로 잠시 보관한다.
+ * 클라이언트가 스크롤해서 다음 요청을 보낼 즈음에는 이미 조회가 끝나 있으므로 DB를 기다리지 않는다.
+ * <p>
+ * 보관 시간(member-scroll.ttl)이 짧으므로 그 사이의 변경은 다음 window에 반영되지 않을 수 있다.
+ * 같은 id 이후를 조회하므로 중간에 회원이 추가/삭제되어도 중복이나 누락 없이 이어서 읽는다.
+ */
+@Component
+public class MemberScrollCache {
+    private final MemberRepository memberRepository;
+    private final ExecutorService executor;
+    private final AsyncCache<WindowKey, ScrollResponse<MemberDto>> windows;
+
+    public MemberScrollCache(MemberRepository memberRepository,
+                             @Value("${member-scroll.ttl:30s}") Duration ttl,
+                             @Value("${member-scroll.maximum-size:10000}") long maximumSize,
+                             @Value("${member-scroll.prefetch-threads:2}") int prefetchThreads) {
+        this.memberRepository = memberRepository;
+        // prefetch 조회가 요청 처리 스레드나 공용 ForkJoinPool을 점유하지 않도록 전용 스레드 사용
+        this.executor = Executors.newFixedThreadPool(prefetchThreads);
+        this.windows = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .executor(executor)
+                .buildAsync();
+    }
+
+    /**
+     * cursor(id) 다음부터 size 만큼 조회하고, 다음 window가 있으면 미리 조회해둔다.
+     */
+    public ScrollResponse<MemberDto> scroll(String clientId, long cursor, int size) {
+        WindowKey key = new WindowKey(clientId, cursor, size);
+        ScrollResponse<MemberDto> window = windows.get(key, this::load).join();
+        // 응답한 window는 다시 요청될 일이 드물므로 바로 비우고, 다음 window를 백그라운드에서 조회
+        windows.synchronous().invalidate(key);
+        if (window.hasNext()) {
+            windows.get(new WindowKey(clientId, window.nextCursor(), size), this::load);
+        }
+        return window;
+    }
+
+    private ScrollResponse<MemberDto> load(WindowKey key) {
+        // Slice는 size + 1개를 조회해서 다음 window 존재 여부만 확인하고 count 쿼리는 실행하지 않는다.
+        Slice<MemberDto> slice = memberRepository
+                .findSliceByIdGreaterThanOrderByIdAsc(key.cursor(), PageRequest.ofSize(key.size()))
+                .map(MemberDto::new);
+        List<MemberDto> content = slice.getContent();
+        Long nextCursor = slice.hasNext() ? content.get(content.size() - 1).id() : null;
+        return new ScrollResponse<>(content, nextCursor, slice.hasNext());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record WindowKey(String clientId, long cursor, int size) {
+    }
+}
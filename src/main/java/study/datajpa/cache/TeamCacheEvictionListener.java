@@ -0,0 +1,24 @@
+package study.datajpa.cache;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Team;
+
+/**
+ * MemberCache는 fetch 계획에 따라 team을 함께 담고 있으므로, Team이 변경/삭제되면 MemberCache 전체를 비운다.
+ * 팀 변경은 드물기 때문에 팀에 속한 회원만 골라서 제거하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamCacheEvictionListener {
+    private final MemberCacheClearer memberCacheClearer;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(Team team) {
+        // MemberCacheEvictionListener와 같은 이유로 트랜잭션이 끝난 뒤 한 번 더 제거
+        memberCacheClearer.clear();
+    }
+}
@@ -1,30 +1,49 @@
 package study.datajpa.controller;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import study.datajpa.cache.MemberCache;
+import study.datajpa.cache.MemberScrollCache;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.ScrollResponse;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberProjection;
+import study.datajpa.repository.MemberReactiveRepository;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.Deadline;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final MemberRepository memberRepository;
+    private final MemberReactiveRepository memberReactiveRepository;
+    private final MemberCache memberCache;
+    private final MemberScrollCache memberScrollCache;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
+        Member member = memberCache.findById(id).get();
         return member.getUsername();
     }
 
     // 도메인 클래스 컨버터
+    // String -> Member 변환은 CachedMemberConverter가 MemberCache를 거쳐서 처리 (WebConfig)
     // 외부에 PK를 공개해서 조회하게 하는 경우가 많진 않음 
     // HTTP 요청으로 Member 엔티티의 PK를 받지만, 도메인 클래스 컨버터가 중간에 동작해서 Member 엔티티 객체를 파라미터로 반환. 반환된 엔티티는 영속성 컨텍스트에서 관리되는 대상이 아니므로 조회용으로만 써야 한다. 변경하려면 Transational 달고 변경할 수는 있지만 로직이 지저분해지므로 권장하지 않음.
     @GetMapping("/members2/{id}")
@@ -32,17 +51,67 @@ public class MemberController {
         return member.getUsername();
     }
 
+    // 여러 id를 한 번의 in 쿼리로 변환 (MemberBatchConverter). ex) /members2?ids=1,2,3
+    @GetMapping("/members2")
+    public List<String> findMembers2(@RequestParam("ids") List<Member> members) {
+        return members.stream().map(Member::getUsername).toList();
+    }
+
+    // 엔티티 대신 DTO로 변환 (MemberDtoConverter). team 이름까지 한 번의 조회로 가져온다.
+    @GetMapping("/members3/{id}")
+    public MemberDto findMember3(@PathVariable("id") MemberDto member) {
+        return member;
+    }
+
     // ex) localhost:8080/members?page=1&size=5&sort=username,desc&sort=id,desc
     // default: page=0, size=20
-    @GetMapping("/members")
-    public Page<MemberDto> list(
+    // Page를 그대로 반환하면 PageImpl 내부 구조(pageable, sort 등)가 전부 JSON으로 나가므로
+    // content + page(size, number, totalElements, totalPages)만 가진 PagedModel로 감싸서 반환
+    // Accept 헤더에 따라 JSON / CBOR / Smile로 응답
+    // 요청 마감 시각. 클라이언트가 X-Request-Timeout-Ms로 더 짧게 줄 수 있음 (RequestDeadlineInterceptor)
+    @Deadline(millis = 3000)
+    @GetMapping(value = "/members", produces = {MediaType.APPLICATION_JSON_VALUE, "application/cbor",
+            "application/x-jackson-smile"})
+    public PagedModel<MemberDto> list(
             // local 설정. global 설정은 appliation.yml에서 가능
             @PageableDefault(page = 1, size = 5, sort = "username", direction = Direction.DESC) Pageable pageable) {
 
         Page<Member> page = memberRepository.findAll(pageable);
 
         Page<MemberDto> toMap = page.map(member -> new MemberDto(member));
-        return toMap;
+        return new PagedModel<>(toMap);
+    }
+
+    // 무한 스크롤. ex) localhost:8080/members/scroll?size=20 -> 응답의 nextCursor로 /members/scroll?cursor=20&size=20
+    // Page와 달리 count 쿼리를 실행하지 않고, 다음 window는 미리 조회해서 클라이언트별로 잠시 캐시해둔다.
+    // 클라이언트 구분은 X-Client-Id 헤더, 없으면 요청 IP
+    @GetMapping("/members/scroll")
+    public ScrollResponse<MemberDto> scroll(
+            @RequestParam(value = "cursor", defaultValue = "0") long cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestHeader(value = "X-Client-Id", required = false) String clientId,
+            HttpServletRequest request) {
+        String client = clientId != null ? clientId : request.getRemoteAddr();
+        return memberScrollCache.scroll(client, cursor, Math.max(1, Math.min(size, MAX_SCROLL_SIZE)));
+    }
+
+    // 조회 전용 스트리밍 엔드포인트 (R2DBC)
+    // NDJSON으로 한 줄씩 내려보내며, 클라이언트가 소비하는 속도에 맞춰 DB에서 읽어온다.
+    @GetMapping(value = "/stream/members/dto", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MemberDto> streamMemberDto() {
+        return memberReactiveRepository.findMemberDto();
+    }
+
+    // ex) /stream/members?page=1&size=100&sort=teamName,desc (정렬은 id, username, teamName만 가능)
+    @GetMapping(value = "/stream/members", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MemberProjection> streamMembers(
+            @PageableDefault(size = 100) Pageable pageable) {
+        return memberReactiveRepository.findByNativeProjection(pageable);
+    }
+
+    @GetMapping(value = "/stream/members/by-username", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MemberDto> streamMembersByUsername(@RequestParam("username") String username) {
+        return memberReactiveRepository.findByUsername(username);
     }
 
     @PostConstruct
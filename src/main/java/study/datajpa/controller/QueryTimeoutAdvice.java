@@ -0,0 +1,35 @@
+package study.datajpa.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 쿼리 timeout, 요청 마감 시각 초과를 504로 응답하고 db.query.timeouts 메트릭으로 집계한다.
+ * (/actuator/metrics/db.query.timeouts?tag=uri:/members)
+ */
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class QueryTimeoutAdvice {
+    private final MeterRegistry meterRegistry;
+
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ProblemDetail handleTimeout(RuntimeException e, HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Counter.builder("db.query.timeouts")
+                .description("Queries cancelled by a query timeout or request deadline")
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .tag("exception", e.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+        return ProblemDetail.forStatusAndDetail(HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded");
+    }
+}
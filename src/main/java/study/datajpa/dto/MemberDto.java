@@ -1,18 +1,15 @@
 package study.datajpa.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
 import study.datajpa.entity.Member;
 
-@Data
-@AllArgsConstructor
-public class MemberDto {
-    private Long id;
-    private String username;
-    private String teamName;
+/**
+ * 회원 조회 결과. 불변 record (setter, equals/hashCode용 필드 복사 없음)
+ * 팀 이름은 여러 row에 같은 값이 반복되므로, 목록을 만드는 쪽에서 조회 단위로 같은 String 인스턴스를 공유한다.
+ * (MemberRepositoryCustomImpl.findMemberDto, MemberReactiveRepository)
+ */
+public record MemberDto(Long id, String username, String teamName) {
 
     public MemberDto(Member member) {
-        this.id = member.getId();
-        this.username = member.getUsername();
+        this(member.getId(), member.getUsername(), null);
     }
 }
@@ -0,0 +1,22 @@
+package study.datajpa.dto;
+
+/**
+ * 회원 동적 검색 조건. null인 조건은 무시한다.
+ *
+ * @param username  이름 (일치)
+ * @param ageGoe    나이 >= ageGoe
+ * @param ageLoe    나이 <= ageLoe
+ * @param teamName  팀 이름 (일치)
+ * @param fetchTeam 결과에서 team을 사용할지 여부. true면 fetch join으로 함께 조회
+ */
+public record MemberSearchCondition(String username, Integer ageGoe, Integer ageLoe, String teamName,
+                                    boolean fetchTeam) {
+
+    public static MemberSearchCondition of(String username, Integer ageGoe, Integer ageLoe, String teamName) {
+        return new MemberSearchCondition(username, ageGoe, ageLoe, teamName, false);
+    }
+
+    public MemberSearchCondition withFetchTeam() {
+        return new MemberSearchCondition(username, ageGoe, ageLoe, teamName, true);
+    }
+}
@@ -0,0 +1,11 @@
+package study.datajpa.dto;
+
+import java.util.List;
+
+/**
+ * 무한 스크롤 응답. 다음 요청에는 nextCursor를 cursor로 넘긴다.
+ *
+ * @param nextCursor 마지막 회원의 id. 다음 window가 없으면 null
+ */
+public record ScrollResponse<T>(List<T> content, Long nextCursor, boolean hasNext) {
+}
@@ -0,0 +1,13 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TeamMemberStatsDto {
+    private Long teamId;
+    private String teamName;
+    private Long memberCount;
+    private Double averageAge;
+}
@@ -0,0 +1,39 @@
+package study.datajpa.entity;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * 엔티티를 거치지 않고 JDBC로 audit 컬럼(created_by, last_modified_date 등)을 쓸 때, 하이버네이트와 같은 형식으로 바인딩한다.
+ * - UUID: binary(16) (상위 8바이트 + 하위 8바이트)
+ * - Instant: UTC 기준 timestamp
+ */
+public final class AuditColumns {
+    private static final ThreadLocal<Calendar> UTC = ThreadLocal.withInitial(
+            () -> Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+
+    private AuditColumns() {
+    }
+
+    public static void setAuditor(PreparedStatement ps, int index, UUID auditor) throws SQLException {
+        if (auditor == null) {
+            ps.setNull(index, Types.BINARY);
+            return;
+        }
+        ps.setBytes(index, ByteBuffer.allocate(16)
+                .putLong(auditor.getMostSignificantBits())
+                .putLong(auditor.getLeastSignificantBits())
+                .array());
+    }
+
+    public static void setInstant(PreparedStatement ps, int index, Instant instant) throws SQLException {
+        ps.setTimestamp(index, Timestamp.from(instant), UTC.get());
+    }
+}
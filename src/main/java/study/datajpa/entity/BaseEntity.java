@@ -4,22 +4,32 @@ package study.datajpa.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+import java.util.UUID;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.outbox.OutboxEntityListener;
 
 /**
  * 스프링 데이터 JPA에서 제공해주는 Auditing 관련 기능
+ * 변경 내역은 OutboxEntityListener가 같은 트랜잭션 안에서 outbox_event에 기록
  */
 @MappedSuperclass
 @Getter
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, OutboxEntityListener.class})
 public class BaseEntity extends BaseTimeEntity {
+    // 36자 문자열 대신 UUID(long 2개)로 보관. DB에는 binary(16)으로 저장 (MySQLDialect 기본 매핑)
     @CreatedBy
     @Column(updatable = false)
-    private String createdBy;
+    private UUID createdBy;
 
     @LastModifiedBy
-    private String lastModifiedBy;
+    private UUID lastModifiedBy;
+
+    // 낙관적 락. 변경 감지로 update 할 때 where 절에 version 조건이 붙고, 다른 트랜잭션이 먼저 수정했다면
+    // OptimisticLockException 발생. 래퍼 타입이므로 null이면 스프링 데이터 JPA가 새로운 엔티티로 판단한다.
+    @Version
+    private Long version;
 }
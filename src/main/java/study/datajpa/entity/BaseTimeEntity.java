@@ -3,7 +3,7 @@ package study.datajpa.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
-import java.time.LocalDateTime;
+import java.time.Instant;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -15,10 +15,13 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 public class BaseTimeEntity {
     // 시간만 필요하고, 등록자/수정자가 필요 없는 경우 BaseTimeEntity를 상속
     // 시간과 등록자/수정자 모두 필요한 경우 BaseEntity 상속 
+    // LocalDateTime(날짜/시간 객체 2개)보다 작은 Instant(초 + 나노초) 사용. UTC 기준으로 저장
     @CreatedDate
     @Column(updatable = false)
-    private LocalDateTime createdDate;
+    private Instant createdDate;
 
+    // 증분 동기화(수정 시각 범위 조회)에 쓰이는 컬럼. 인덱스에서 컬럼명으로 참조하므로 이름을 명시
     @LastModifiedDate
-    private LocalDateTime lastModifiedDate;
+    @Column(name = "last_modified_date")
+    private Instant lastModifiedDate;
 }
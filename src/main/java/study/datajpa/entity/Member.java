@@ -2,18 +2,23 @@ package study.datajpa.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.NamedAttributeNode;
 import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import study.datajpa.cache.MemberCacheEvictionListener;
+import study.datajpa.search.MemberSearchIndexListener;
 
 @Entity
 @Getter
@@ -30,6 +35,14 @@ import lombok.ToString;
         name = "Member.all",
         attributeNodes = @NamedAttributeNode("team")
 )
+@EntityListeners({MemberCacheEvictionListener.class, UsernameKeyListener.class, MemberSearchIndexListener.class})
+// (last_modified_date, member_id) keyset 조회가 인덱스 범위 스캔으로 처리되도록 복합 인덱스
+// username 검색은 가변 길이 username 대신 username_hash(정확히 일치), username_key(대소문자 무시, prefix) 인덱스 사용
+@Table(indexes = {
+        @Index(name = "idx_member_last_modified", columnList = "last_modified_date, member_id"),
+        @Index(name = "idx_member_username_hash", columnList = "username_hash"),
+        @Index(name = "idx_member_username_key", columnList = "username_key")
+})
 public class Member extends BaseEntity {
     @Id
     @GeneratedValue
@@ -38,6 +51,13 @@ public class Member extends BaseEntity {
     private String username;
     private int age;
 
+    // username 검색 컬럼. UsernameKeyListener가 저장/수정 직전에 계산 (UsernameKey)
+    @Column(name = "username_key")
+    private String usernameKey;
+
+    @Column(name = "username_hash")
+    private Integer usernameHash;
+
     // @~ToOne은 디폴트가 Fettype.EAGER이므로 LAZY로 설정해줘야 함
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
@@ -64,8 +84,19 @@ public class Member extends BaseEntity {
         this.username = username;
     }
 
+    void refreshUsernameKey() {
+        this.usernameKey = UsernameKey.normalize(username);
+        this.usernameHash = UsernameKey.hash(username);
+    }
+
+    public void increaseAge() {
+        this.age++;
+    }
+
     public void changeTeam(Team team) {
         this.team = team;
+        // Team.members는 연관관계의 주인이 아닌(mappedBy) bag(List)이므로, 초기화되지 않은 상태에서 add 하면
+        // 컬렉션을 조회하지 않고 추가 작업만 큐에 쌓아둔다. contains(), size() 등은 전체를 조회하므로 호출하지 않는다.
         team.getMembers().add(this);
     }
 }
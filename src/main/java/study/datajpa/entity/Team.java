@@ -2,6 +2,7 @@ package study.datajpa.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
@@ -11,11 +12,13 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import study.datajpa.cache.TeamCacheEvictionListener;
 
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+@EntityListeners(TeamCacheEvictionListener.class)
 public class Team extends BaseEntity {
     @Id
     @GeneratedValue
@@ -24,10 +27,16 @@ public class Team extends BaseEntity {
 
     private String name;
 
+    // 멤버가 많을 수 있으므로 전체를 순회할 때만 사용. 개수/평균 나이 등은 TeamRepository의 집계 쿼리 사용
+    // Set으로 바꾸면 add 시점에 중복 확인을 위해 전체가 초기화되므로 bag(List)을 유지
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
         this.name = name;
     }
+
+    public void changeName(String name) {
+        this.name = name;
+    }
 }
@@ -0,0 +1,42 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 팀별 회원 통계를 미리 계산해둔 요약 테이블 (team 당 1 row).
+ * member, team을 매번 join/group by 하지 않고 이 테이블만 읽는다.
+ * <p>
+ * TeamSummaryRefresher가 주기적으로 전체를 다시 계산하므로 최대 refresh 주기만큼 늦을 수 있다.
+ * 조회 전용이므로 변경 메소드가 없고, Auditing/outbox 대상도 아니다. (BaseEntity를 상속하지 않음)
+ */
+@Entity
+@Table(name = "team_summary")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamSummary {
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private Double averageAge;
+    private Integer minAge;
+    private Integer maxAge;
+
+    // 나이 분포
+    private long ageUnder20;
+    private long age20s;
+    private long age30s;
+    private long age40AndOver;
+
+    private Instant refreshedAt;
+}
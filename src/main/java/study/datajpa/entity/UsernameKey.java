@@ -0,0 +1,28 @@
+package study.datajpa.entity;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * username 검색 컬럼(username_key, username_hash) 계산.
+ * <p>
+ * - key: 유니코드 정규화(NFKC) + 앞뒤 공백 제거 + 소문자. 대소문자 무시 검색과 prefix 검색(like 'abc%')에 사용
+ * - hash: username 원본의 String.hashCode(). 정확히 일치하는 검색에서 좁은 int 인덱스로 후보를 찾고, username으로 다시 비교
+ * String.hashCode()는 JLS에 계산식이 정해져 있으므로 JVM이 바뀌어도 값이 같다.
+ */
+public final class UsernameKey {
+
+    private UsernameKey() {
+    }
+
+    public static String normalize(String username) {
+        if (username == null) {
+            return null;
+        }
+        return Normalizer.normalize(username, Normalizer.Form.NFKC).strip().toLowerCase(Locale.ROOT);
+    }
+
+    public static Integer hash(String username) {
+        return username == null ? null : username.hashCode();
+    }
+}
@@ -0,0 +1,17 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * 저장/수정 직전에 username 검색 컬럼을 다시 계산한다.
+ * 엔티티를 거치지 않는 변경(네이티브 SQL 등)은 UsernameKey로 직접 계산해서 함께 갱신해야 한다.
+ */
+public class UsernameKeyListener {
+
+    @PrePersist
+    @PreUpdate
+    public void refresh(Member member) {
+        member.refreshUsernameKey();
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.outbox;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 테스트/로컬용 sink. 전달받은 이벤트를 메모리에 최근 MAX_SIZE건까지만 보관한다.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+    private static final int MAX_SIZE = 10_000;
+
+    private final Deque<OutboxEvent> received = new ArrayDeque<>();
+
+    @Override
+    public synchronized void send(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            if (received.size() == MAX_SIZE) {
+                received.removeFirst();
+            }
+            received.addLast(event);
+        }
+    }
+
+    public synchronized List<OutboxEvent> getReceived() {
+        return List.copyOf(received);
+    }
+
+    public synchronized void clear() {
+        received.clear();
+    }
+}
@@ -0,0 +1,42 @@
+package study.datajpa.outbox;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+/**
+ * BaseEntity를 상속한 엔티티(Member, Team)의 insert/update/delete를 outbox에 기록한다.
+ * Post 콜백은 SQL이 실행된 직후(flush 도중)에 호출되므로 같은 트랜잭션 안에서 기록된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxEntityListener {
+    private final OutboxRecorder outboxRecorder;
+
+    @PostPersist
+    public void postPersist(Object entity) {
+        record(entity, OutboxEventType.CREATED);
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity) {
+        record(entity, OutboxEventType.UPDATED);
+    }
+
+    @PostRemove
+    public void postRemove(Object entity) {
+        record(entity, OutboxEventType.DELETED);
+    }
+
+    private void record(Object entity, OutboxEventType eventType) {
+        if (entity instanceof Member member) {
+            outboxRecorder.record("Member", member.getId(), eventType);
+        } else if (entity instanceof Team team) {
+            outboxRecorder.record("Team", team.getId(), eventType);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package study.datajpa.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Transactional outbox. Member/Team이 변경된 트랜잭션 안에서 같이 insert 되고,
+ * OutboxRelay가 별도 스레드에서 읽어서 OutboxSink로 전달한 뒤 삭제한다.
+ * 변경 내용 자체가 아닌 "어떤 엔티티가 변경되었는지"만 기록하므로, 하위 시스템은 필요한 경우 해당 엔티티를 다시 조회한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class OutboxEvent {
+    // OutboxRecorder가 JDBC로 직접 insert 하므로 DB가 id를 생성하도록 IDENTITY 사용
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_event_id")
+    private Long id;
+
+    @Column(nullable = false)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxEventType eventType;
+
+    @Column(nullable = false)
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,9 @@
+package study.datajpa.outbox;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // 먼저 쌓인 순서대로 배치 단위로 가져옴
+    List<OutboxEvent> findTop100ByOrderByIdAsc();
+}
@@ -0,0 +1,44 @@
+package study.datajpa.outbox;
+
+import java.time.LocalDateTime;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * outbox_event 테이블에 변경 기록을 남긴다.
+ * <p>
+ * 엔티티 리스너(flush 도중)에서는 EntityManager.persist를 호출할 수 없으므로 JDBC로 직접 insert 한다.
+ * JpaTransactionManager가 JPA 트랜잭션의 커넥션을 DataSource에 바인딩해두기 때문에
+ * JdbcTemplate도 같은 커넥션/트랜잭션을 사용하고, 엔티티 변경과 함께 커밋/롤백된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxRecorder {
+    private static final Pattern AGGREGATE_TYPE = Pattern.compile("[A-Za-z]+");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void record(String aggregateType, Long aggregateId, OutboxEventType eventType) {
+        jdbcTemplate.update("insert into outbox_event (aggregate_type, aggregate_id, event_type, created_date)"
+                        + " values (?, ?, ?, ?)",
+                aggregateType, aggregateId, eventType.name(), LocalDateTime.now());
+    }
+
+    /**
+     * 벌크 연산처럼 엔티티 리스너를 거치지 않는 변경을 기록한다.
+     * idQuery는 대상 row의 id를 "id"라는 이름으로 조회하는 SQL이어야 하며, 벌크 연산 "전에" 호출해야 같은 대상이 조회된다.
+     *
+     * @return 기록된 이벤트 수
+     */
+    public int recordAll(String aggregateType, OutboxEventType eventType, String idQuery, Object... idQueryArgs) {
+        // select 절의 바인드 파라미터는 타입을 추론하지 못하는 DB(H2 등)가 있으므로 상수는 SQL에 직접 넣는다.
+        if (!AGGREGATE_TYPE.matcher(aggregateType).matches()) {
+            throw new IllegalArgumentException("invalid aggregateType: " + aggregateType);
+        }
+        return jdbcTemplate.update("insert into outbox_event (aggregate_type, event_type, created_date, aggregate_id)"
+                + " select '" + aggregateType + "', '" + eventType.name() + "', current_timestamp, target.id"
+                + " from (" + idQuery + ") target", idQueryArgs);
+    }
+}
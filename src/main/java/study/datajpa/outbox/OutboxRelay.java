@@ -0,0 +1,59 @@
+package study.datajpa.outbox;
+
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * outbox_event를 배치 단위로 읽어서 OutboxSink로 전달하고 삭제한다.
+ * <p>
+ * 쓰기 트랜잭션과는 별도의 스케줄러 스레드에서 동작하므로 Member/Team 저장 시간에 영향을 주지 않는다.
+ * sink 전달과 삭제 사이에 장애가 나면 다음 실행에서 다시 전달된다. (at-least-once)
+ * 조회/삭제 트랜잭션을 짧게 나눠서 sink 호출 중에는 DB 커넥션을 잡고 있지 않는다.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink outboxSink,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.fixed-delay:1000}")
+    public void scheduledRelay() {
+        try {
+            relay();
+        } catch (Exception e) {
+            // 다음 주기에 다시 시도
+            log.warn("outbox relay failed", e);
+        }
+    }
+
+    /**
+     * 쌓여 있는 이벤트를 모두 전달할 때까지 배치 단위로 반복한다.
+     *
+     * @return 전달한 이벤트 수
+     */
+    public synchronized int relay() throws Exception {
+        int relayed = 0;
+        while (true) {
+            List<OutboxEvent> batch = outboxEventRepository.findTop100ByOrderByIdAsc();
+            if (batch.isEmpty()) {
+                return relayed;
+            }
+            outboxSink.send(batch);
+            List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+            relayed += batch.size();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package study.datajpa.outbox;
+
+import java.util.List;
+
+/**
+ * outbox 이벤트를 전달받는 대상 (메시지 브로커, 파일 등).
+ * OutboxRelay는 send가 정상 종료된 뒤에만 이벤트를 삭제하므로 같은 이벤트가 두 번 이상 전달될 수 있다. (at-least-once)
+ * 구현체는 이벤트 id로 중복을 걸러낼 수 있어야 한다.
+ */
+public interface OutboxSink {
+    void send(List<OutboxEvent> events) throws Exception;
+}
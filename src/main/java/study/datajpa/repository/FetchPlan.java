@@ -0,0 +1,110 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Subgraph;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 호출 시점에 지정하는 fetch 계획.
+ * 메소드마다 @EntityGraph를 고정하지 않고, 호출하는 쪽에서 실제로 사용할 연관관계만 함께 조회한다.
+ * <p>
+ * - named: 엔티티에 정의된 @NamedEntityGraph 사용 (ex. "Member.all")
+ * - of: 속성 경로를 직접 지정. 중첩 경로는 "."으로 구분 (ex. "team", "team.members")
+ * <p>
+ * 그래프에 없는 속성의 처리 방식
+ * - FETCH(jakarta.persistence.fetchgraph): 그래프에 없는 속성은 LAZY로 취급
+ * - LOAD(jakarta.persistence.loadgraph): 그래프에 없는 속성은 매핑에 지정된 fetch 전략(EAGER/LAZY)을 따름
+ * <p>
+ * 적용 범위는 FetchPlan을 인자로 받는 MemberRepositoryCustom 메소드(findById, findAll(Specification), findByCondition)와
+ * MemberCache이다. 스프링 데이터가 만드는 파생 쿼리에는 호출 시점의 힌트를 넘길 확장 지점이 없다.
+ */
+public final class FetchPlan {
+
+    public enum Semantics {
+        FETCH("jakarta.persistence.fetchgraph"),
+        LOAD("jakarta.persistence.loadgraph");
+
+        private final String hint;
+
+        Semantics(String hint) {
+            this.hint = hint;
+        }
+    }
+
+    // 연관관계를 함께 조회하지 않음 (매핑에 지정된 fetch 전략 그대로)
+    public static final FetchPlan NONE = new FetchPlan(null, List.of(), Semantics.FETCH);
+
+    private final String graphName;
+    private final List<String> attributePaths;
+    private final Semantics semantics;
+
+    private FetchPlan(String graphName, List<String> attributePaths, Semantics semantics) {
+        this.graphName = graphName;
+        this.attributePaths = attributePaths;
+        this.semantics = semantics;
+    }
+
+    public static FetchPlan named(String graphName) {
+        return new FetchPlan(graphName, List.of(), Semantics.FETCH);
+    }
+
+    public static FetchPlan of(String... attributePaths) {
+        return new FetchPlan(null, List.copyOf(Arrays.asList(attributePaths)), Semantics.FETCH);
+    }
+
+    public FetchPlan load() {
+        return new FetchPlan(graphName, attributePaths, Semantics.LOAD);
+    }
+
+    public boolean isEmpty() {
+        return graphName == null && attributePaths.isEmpty();
+    }
+
+    /**
+     * em.find(), Query.setHint()에 넘길 힌트. 빈 계획이면 빈 Map
+     */
+    public Map<String, Object> hints(EntityManager em, Class<?> entityClass) {
+        Map<String, Object> hints = new HashMap<>();
+        if (!isEmpty()) {
+            hints.put(semantics.hint, toGraph(em, entityClass));
+        }
+        return hints;
+    }
+
+    private <T> EntityGraph<?> toGraph(EntityManager em, Class<T> entityClass) {
+        if (graphName != null) {
+            return em.getEntityGraph(graphName);
+        }
+        EntityGraph<T> graph = em.createEntityGraph(entityClass);
+        // 같은 중간 경로(ex. team.members, team.xxx)는 하나의 subgraph를 공유
+        Map<String, Subgraph<?>> subgraphs = new HashMap<>();
+        for (String path : attributePaths) {
+            String[] names = path.split("\\.");
+            Subgraph<?> parent = null;
+            StringBuilder prefix = new StringBuilder();
+            for (int i = 0; i < names.length - 1; i++) {
+                prefix.append(i == 0 ? "" : ".").append(names[i]);
+                Subgraph<?> current = parent;
+                String name = names[i];
+                parent = subgraphs.computeIfAbsent(prefix.toString(),
+                        key -> current == null ? graph.addSubgraph(name) : current.addSubgraph(name));
+            }
+            String leaf = names[names.length - 1];
+            if (parent == null) {
+                graph.addAttributeNodes(leaf);
+            } else {
+                parent.addAttributeNodes(leaf);
+            }
+        }
+        return graph;
+    }
+
+    @Override
+    public String toString() {
+        return "FetchPlan{" + (graphName != null ? graphName : attributePaths) + ", " + semantics + "}";
+    }
+}
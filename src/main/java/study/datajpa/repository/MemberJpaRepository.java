@@ -1,16 +1,25 @@
 package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Repository;
+import study.datajpa.cache.MemberCache;
 import study.datajpa.entity.Member;
+import study.datajpa.outbox.OutboxEventType;
+import study.datajpa.outbox.OutboxRecorder;
 
 @Repository
 @RequiredArgsConstructor
 public class MemberJpaRepository {
     private final EntityManager em;
+    private final OutboxRecorder outboxRecorder;
+    private final AuditorAware<UUID> auditorAware;
 
     public Member save(Member member) {
         em.persist(member);
@@ -73,10 +82,17 @@ public class MemberJpaRepository {
                 .getSingleResult();
     }
 
+    @CacheEvict(cacheNames = MemberCache.CACHE_NAME, allEntries = true)
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1"
+        em.flush();
+        outboxRecorder.recordAll("Member", OutboxEventType.UPDATED,
+                "select m.member_id as id from member m where m.age >= ?", age);
+        return em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1,"
+                        + " m.lastModifiedDate = :now, m.lastModifiedBy = :auditor"
                         + " where m.age >= :age")
                 .setParameter("age", age)
+                .setParameter("now", Instant.now())
+                .setParameter("auditor", auditorAware.getCurrentAuditor().orElse(null))
                 .executeUpdate();
     }
 }
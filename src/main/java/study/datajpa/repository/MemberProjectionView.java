@@ -0,0 +1,21 @@
+package study.datajpa.repository;
+
+/**
+ * MemberProjection의 record 구현체. 네이티브 쿼리 + 인터페이스 프로젝션 대신 JPQL 생성자 표현식으로 생성한다.
+ */
+public record MemberProjectionView(Long id, String username, String teamName) implements MemberProjection {
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getTeamName() {
+        return teamName;
+    }
+}
@@ -0,0 +1,117 @@
+package study.datajpa.repository;
+
+import io.r2dbc.spi.Readable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import study.datajpa.dto.MemberDto;
+
+/**
+ * MemberRepository의 조회 메소드 일부를 R2DBC로 옮긴 읽기 전용 저장소.
+ * 구독자가 요청(request(n))한 만큼만 row를 읽어오므로 스트리밍 응답에서 back-pressure가 유지된다.
+ * 쓰기는 영속성 컨텍스트를 거쳐야 하므로 JPA(MemberRepository)를 사용한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberReactiveRepository {
+    private static final Map<String, String> PROJECTION_SORT_COLUMNS =
+            Map.of("id", "m.member_id", "username", "m.username", "teamName", "t.name");
+
+    private final DatabaseClient readDatabaseClient;
+
+    // MemberRepository.findMemberDto()
+    public Flux<MemberDto> findMemberDto() {
+        return Flux.defer(() -> {
+            Map<String, String> teamNames = new HashMap<>();
+            return readDatabaseClient.sql("select m.member_id, m.username, t.name from member m"
+                            + " join team t on m.team_id = t.team_id")
+                    .map(row -> toMemberDto(row, teamNames))
+                    .all();
+        });
+    }
+
+    // MemberRepository.findByNativeProjection(Pageable)
+    // 정렬은 MemberProjection 속성(id, username, teamName)만 허용. 지원하지 않는 속성은 IllegalArgumentException으로 종료
+    public Flux<MemberProjection> findByNativeProjection(Pageable pageable) {
+        return Flux.defer(() -> readDatabaseClient.sql("select m.member_id as id, m.username, t.name as teamName"
+                        + " from member m left join team t on m.team_id = t.team_id"
+                        + orderBy(pageable.getSort())
+                        + " limit :limit offset :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(row -> (MemberProjection) new MemberRow(
+                        row.get("id", Long.class),
+                        row.get("username", String.class),
+                        row.get("teamName", String.class)))
+                .all());
+    }
+
+    // MemberRepository.findByUsername(String)
+    public Flux<MemberDto> findByUsername(String username) {
+        return Flux.defer(() -> {
+            Map<String, String> teamNames = new HashMap<>();
+            return readDatabaseClient.sql("select m.member_id, m.username, t.name from member m"
+                            + " left join team t on m.team_id = t.team_id"
+                            + " where m.username = :username")
+                    .bind("username", username)
+                    .map(row -> toMemberDto(row, teamNames))
+                    .all();
+        });
+    }
+
+    // 요청의 정렬 속성을 컬럼으로 바꾼다. (MemberRepositoryCustomImpl.orderBy와 같은 규칙)
+    // 페이지 경계가 흔들리지 않도록 마지막에 member_id를 붙인다.
+    private static String orderBy(Sort sort) {
+        StringJoiner clause = new StringJoiner(", ", " order by ", "");
+        for (Sort.Order order : sort) {
+            String column = PROJECTION_SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property for MemberProjection: "
+                        + order.getProperty() + " (supported: " + PROJECTION_SORT_COLUMNS.keySet() + ")");
+            }
+            String expression = order.isIgnoreCase() ? "lower(" + column + ")" : column;
+            clause.add(expression + (order.isAscending() ? " asc" : " desc") + switch (order.getNullHandling()) {
+                case NULLS_FIRST -> " nulls first";
+                case NULLS_LAST -> " nulls last";
+                case NATIVE -> "";
+            });
+        }
+        if (sort.getOrderFor("id") == null) {
+            clause.add("m.member_id");
+        }
+        return clause.toString();
+    }
+
+    // 같은 팀 이름은 구독 단위로 같은 String 인스턴스를 공유한다. (onNext는 순서대로 호출되므로 HashMap으로 충분)
+    private static MemberDto toMemberDto(Readable row, Map<String, String> teamNames) {
+        String teamName = row.get("name", String.class);
+        return new MemberDto(
+                row.get("member_id", Long.class),
+                row.get("username", String.class),
+                teamName == null ? null : teamNames.computeIfAbsent(teamName, Function.identity()));
+    }
+
+    private record MemberRow(Long id, String username, String teamName) implements MemberProjection {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getTeamName() {
+            return teamName;
+        }
+    }
+}
@@ -2,21 +2,27 @@ package study.datajpa.repository;
 
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.WindowIterator;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.UsernameKey;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
     // 메소드 명에서 find와 by 사이에 어떤 단어가 들어가도 쿼리에 영향을 끼치지 않음. 마음대로 네이밍 가능.
@@ -30,14 +36,38 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     // Named Query가 존재하면 Named Query를 실행하고 없으면 `메소드 이름으로 쿼리 생성` 방식으로 쿼리를 생성해서 실행
     List<Member> findByUsername(@Param("username") String username);
 
+    // username_hash 인덱스로 후보를 찾고 username으로 다시 비교 (hash 충돌 대비)
+    @Query("select m from Member m where m.usernameHash = :hash and m.username = :username")
+    List<Member> findByUsernameHash(@Param("hash") Integer hash, @Param("username") String username);
+
+    default List<Member> findByUsernameIndexed(String username) {
+        return findByUsernameHash(UsernameKey.hash(username), username);
+    }
+
+    List<Member> findByUsernameKey(String usernameKey);
+
+    // 대소문자 무시 검색. lower(username)로 비교하면 인덱스를 사용할 수 없으므로 정규화된 username_key로 비교
+    default List<Member> findByUsernameIgnoreCaseIndexed(String username) {
+        return findByUsernameKey(UsernameKey.normalize(username));
+    }
+
+    // like 'prefix%'는 username_key 인덱스 범위 스캔으로 처리된다. (특수문자 %, _ 는 스프링 데이터 JPA가 이스케이프)
+    Slice<Member> findByUsernameKeyStartingWithOrderByUsernameKeyAsc(String prefix, Pageable pageable);
+
+    default Slice<Member> findByUsernamePrefix(String prefix, Pageable pageable) {
+        return findByUsernameKeyStartingWithOrderByUsernameKeyAsc(UsernameKey.normalize(prefix), pageable);
+    }
+
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
-    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
-    List<MemberDto> findMemberDto();
+    // 도메인 클래스 컨버터 대신 DTO로 바로 변환할 때 사용 (MemberDtoConverter)
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t"
+            + " where m.id = :id")
+    Optional<MemberDto> findMemberDtoById(@Param("id") Long id);
 
     @Query("select m from Member m where m.username in :names")
     List<Member> findByNames(@Param("names") Collection<String> usernames);
@@ -48,29 +78,65 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     Optional<Member> findOptionalByUsername(String username);   // 단건 Optional
 
+    // 쿼리 timeout 기본값은 @Transactional(timeout)으로 지정 (초). 요청 마감 시각이 더 짧으면 그 시간으로 줄어든다.
+    // @QueryHints로 jakarta.persistence.query.timeout을 고정하면 트랜잭션 timeout(요청 마감 시각)보다 우선 적용되므로 사용하지 않음
     // count 쿼리만 따로 정의할 수 있음. count 하는데는 굳이 join할 필요 없으므로 따로 정의하는 것이 좋음.
     @Query(value = "select m from Member m left join m.team t",
             countQuery = "select count(m.username) from Member m")
+    @Transactional(readOnly = true, timeout = 3)
     Page<Member> findByAge(int age, Pageable pageable);
 
+    @Override
+    @Transactional(readOnly = true, timeout = 3)
+    Page<Member> findAll(Pageable pageable);
+
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
+    // 무한 스크롤(/members/scroll). id 이후부터 조회하는 keyset 방식이므로 offset 비용이 없다.
+    Slice<Member> findSliceByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // 배치(MemberBatchRunner)에서 id 범위 파티션과 keyset 청크 조회에 사용
+    @Query("select min(m.id) from Member m")
+    Long findMinId();
+
+    @Query("select max(m.id) from Member m")
+    Long findMaxId();
+
+    List<Member> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long afterId, Long toId, Pageable pageable);
+
+    // 증분 동기화: since 이후 수정된 회원을 (lastModifiedDate, id) 순서의 keyset 방식으로 조회
+    // offset 없이 마지막 (lastModifiedDate, id) 다음부터 읽으므로 idx_member_last_modified 범위 스캔으로 처리된다.
+    Window<Member> findByLastModifiedDateGreaterThanEqualOrderByLastModifiedDateAscIdAsc(
+            Instant since, ScrollPosition position, Limit limit);
+
+    default WindowIterator<Member> iterateModifiedSince(Instant since, int chunkSize) {
+        return WindowIterator.of(position -> findByLastModifiedDateGreaterThanEqualOrderByLastModifiedDateAscIdAsc(
+                        since, position, Limit.of(chunkSize)))
+                .startingAt(ScrollPosition.keyset());
+    }
+
     // @Modifying: JPA의 executeUpdate(). 수정하는 쿼리에는 꼭 넣어줘야 하는 어노테이션. 없으면 에러 발생.
     // 벌크 연산 주의사항
     // 벌크 연산(executeUpdate()) 실행 시에는 내부적으로 em.flush() 호출 후, 영속성 컨텍스트를 거치지 않고 DB로 바로 쿼리를 보낸다.
     // 따라서 벌크 연산 후 영속성 컨텍스트에 남아있는 엔티티는 DB와 값이 다르다는 것을 인지하고 있어야 한다.
     // 벌크 연산 후 em.clear()를 통해 캐시를 비워주는 것이 하나의 방법.
     // Spring Data JPA의 @Modifying(clearAutomatically = true)를 사용하면 em.clear()와 같은 효과를 볼 수 있음.
-    @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
-    int bulkAgePlus(@Param("age") int age);
+    // 벌크 연산은 변경 감지를 거치지 않으므로 version도 직접 올려줘야 낙관적 락이 깨지지 않는다.
+    // 같은 이유로 Auditing도 동작하지 않으므로 lastModifiedDate, lastModifiedBy를 직접 갱신한다.
+    // 벌크 연산은 엔티티 리스너를 거치지 않으므로 MemberCache 전체를 비운다. (MemberCacheClearer, 커밋 후에 한 번 더)
+    // outbox 기록을 같은 트랜잭션에서 남겨야 하므로 구현은 MemberRepositoryCustomImpl에 있다.
+    // (@Modifying(clearAutomatically = true)와 같이 실행 후 em.clear() 호출)
+    @Override
+    int bulkAgePlus(int age);
 
     @Query("select m from Member m left join fetch m.team")
     List<Member> findMemberFetchJoin();
 
     @Override
     // @EntityGraph: team을 fetch join한 것과 같은 효과
+    // 전체 조회는 결과 크기에 제한이 없으므로 timeout을 짧게 둔다.
     @EntityGraph(attributePaths = {"team"})
+    @Transactional(readOnly = true, timeout = 5)
     List<Member> findAll();
 
     @EntityGraph(attributePaths = {"team"})
@@ -92,6 +158,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     Member findReadOnlyByUsername(String username);
 
     // Spring Data JPA에서 제공하는 Lock 기능. 데이터베이스 방언에 따라 동작방식이 다름.
+    // 경합이 심하면 row lock 대기로 처리량이 떨어지므로, 충돌이 드문 경우에는 @Version + OptimisticLockRetryExecutor 사용
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
@@ -1,8 +1,56 @@
 package study.datajpa.repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    // 프록시 없는 프로젝션. 인터페이스 타입으로 반환하지만 실제 구현체는 record
+    List<UsernameOnly> findUsernameOnlyByUsername(String username);
+
+    List<NestedClosedProjections> findNestedClosedProjectionsByUsername(String username);
+
+    // 정렬은 MemberProjection 속성(id, username, teamName)만 지원. 정렬이 없으면 id 순
+    Page<MemberProjection> findMemberProjections(Pageable pageable);
+
+    // 팀 이름은 조회 한 번 안에서 같은 String 인스턴스를 공유한다.
+    List<MemberDto> findMemberDto();
+
+    int bulkAgePlus(int age);
+
+    // 동적 검색. 조건마다 메소드를 추가하는 대신 MemberSearchCondition 하나로 처리
+    List<Member> findByCondition(MemberSearchCondition condition);
+
+    // 호출하는 쪽에서 fetch 계획을 지정. ex) findById(id, FetchPlan.of("team"))
+    // 아래 세 메소드만 FetchPlan을 받는다. 파생 쿼리/@Query 메소드는 @EntityGraph로 고정되어 있으므로
+    // 다른 조건으로 조회하면서 fetch 계획을 바꾸려면 findAll(Specification, FetchPlan)으로 조건을 표현한다.
+    Optional<Member> findById(Long id, FetchPlan fetchPlan);
+
+    List<Member> findAll(Specification<Member> spec, FetchPlan fetchPlan);
+
+    List<Member> findByCondition(MemberSearchCondition condition, FetchPlan fetchPlan);
+
+    // 네이티브 쿼리 결과를 record/DTO 생성자로 바로 매핑 (컬럼 label = 생성자 파라미터 이름)
+    <T> List<T> queryNative(String sql, Class<T> type, Object... args);
+
+    // 결과를 나눠서 읽는 스트림. 반드시 close 해야 커넥션이 반환된다. (try-with-resources)
+    <T> Stream<T> streamNative(String sql, Class<T> type, int fetchSize, Object... args);
+
+    // JpaRepository의 벌크 삭제를 대신한다. 엔티티 리스너를 거치지 않으므로 MemberCache를 비우고, 커밋 후 검색 색인에서도 직접 지운다.
+    void deleteAllInBatch();
+
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    void deleteAllInBatch(Iterable<Member> entities);
+
+    // username 부분 문자열/오타 허용 검색 (MemberSearchIndex). 관련도 순이며 pageable의 정렬은 무시한다.
+    Page<Member> search(String text, Pageable pageable);
 }
@@ -1,9 +1,45 @@
 package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.util.Streamable;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.cache.MemberCacheClearer;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
+import study.datajpa.outbox.OutboxEventType;
+import study.datajpa.outbox.OutboxRecorder;
+import study.datajpa.search.MemberSearchIndex;
+import study.datajpa.search.MemberSearchIndex.SearchHits;
 
 /**
  * @ 간단한 기능은 JpaRepository<T, ID>를 사용하고, 복잡한 쿼리를 JDBC Template, MyBatis, QueryDSL로 직접 구현하고 싶은 경우 아래와 같이 직접 구현체를 생성해서 사용
@@ -18,11 +54,243 @@ import study.datajpa.entity.Member;
 @RequiredArgsConstructor
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
 
+    // 검색 결과에서 DB에 없는 회원을 색인에서 지우고 다시 검색하는 최대 횟수
+    private static final int MAX_SEARCH_REPAIRS = 2;
+
+    // findMemberProjections에서 정렬할 수 있는 MemberProjection 속성 -> JPQL 경로
+    private static final Map<String, String> PROJECTION_SORT_PATHS =
+            Map.of("id", "m.id", "username", "m.username", "teamName", "t.name");
+
     private final EntityManager em;
+    private final OutboxRecorder outboxRecorder;
+    private final AuditorAware<UUID> auditorAware;
+    private final JdbcTemplate jdbcTemplate;
+    private final NativeRowMapperRegistry rowMappers;
+    private final MemberSearchIndex searchIndex;
+    private final MemberCacheClearer memberCacheClearer;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m where m.age>=10", Member.class)
                 .getResultList();
     }
+
+    @Override
+    public List<UsernameOnly> findUsernameOnlyByUsername(String username) {
+        List<UsernameOnlyView> result = em.createQuery(
+                        "select new study.datajpa.repository.UsernameOnlyView(m.username, m.age)"
+                                + " from Member m where m.username = :username", UsernameOnlyView.class)
+                .setParameter("username", username)
+                .getResultList();
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public List<NestedClosedProjections> findNestedClosedProjectionsByUsername(String username) {
+        // Team 엔티티를 조회하지 않고 left join 한 번으로 필요한 컬럼만 가져옴
+        List<NestedClosedProjectionsView> result = em.createQuery(
+                        "select new study.datajpa.repository.NestedClosedProjectionsView(m.username, t.name)"
+                                + " from Member m left join m.team t where m.username = :username",
+                        NestedClosedProjectionsView.class)
+                .setParameter("username", username)
+                .getResultList();
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public Page<MemberProjection> findMemberProjections(Pageable pageable) {
+        List<MemberProjectionView> content = em.createQuery(
+                        "select new study.datajpa.repository.MemberProjectionView(m.id, m.username, t.name)"
+                                + " from Member m left join m.team t" + orderBy(pageable.getSort()),
+                        MemberProjectionView.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        // 마지막 페이지처럼 count가 필요 없는 경우에는 count 쿼리를 생략
+        return PageableExecutionUtils.getPage(Collections.unmodifiableList(content), pageable,
+                () -> em.createQuery("select count(m) from Member m", Long.class).getSingleResult());
+    }
+
+    @Override
+    public List<MemberDto> findMemberDto() {
+        // JDBC는 row마다 새 String을 만들기 때문에 같은 팀 이름을 조회 단위로 합친다.
+        // intern()과 달리 조회가 끝나면 map도 함께 사라지므로 JVM 전역 문자열 테이블에 남지 않는다.
+        Map<String, String> teamNames = new HashMap<>();
+        return em.createQuery("select m.id, m.username, t.name from Member m join m.team t", Object[].class)
+                .getResultList().stream()
+                .map(row -> new MemberDto((Long) row[0], (String) row[1],
+                        teamNames.computeIfAbsent((String) row[2], Function.identity())))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public int bulkAgePlus(int age) {
+        // outbox는 JDBC로 조회/기록하므로 영속성 컨텍스트에 쌓인 변경을 먼저 DB에 반영해야 같은 대상을 본다.
+        em.flush();
+        outboxRecorder.recordAll("Member", OutboxEventType.UPDATED,
+                "select m.member_id as id from member m where m.age >= ?", age);
+        int resultCount = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1,"
+                        + " m.lastModifiedDate = :now, m.lastModifiedBy = :auditor"
+                        + " where m.age >= :age")
+                .setParameter("age", age)
+                .setParameter("now", Instant.now())
+                .setParameter("auditor", auditorAware.getCurrentAuditor().orElse(null))
+                .executeUpdate();
+        em.clear();
+        memberCacheClearer.clear();
+        return resultCount;
+    }
+
+    @Override
+    public List<Member> findByCondition(MemberSearchCondition condition) {
+        return findByCondition(condition, FetchPlan.NONE);
+    }
+
+    @Override
+    public Optional<Member> findById(Long id, FetchPlan fetchPlan) {
+        return Optional.ofNullable(em.find(Member.class, id, fetchPlan.hints(em, Member.class)));
+    }
+
+    @Override
+    public List<Member> findAll(Specification<Member> spec, FetchPlan fetchPlan) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Member> criteria = cb.createQuery(Member.class);
+        Root<Member> root = criteria.from(Member.class);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, criteria, cb);
+        if (predicate != null) {
+            criteria.where(predicate);
+        }
+        criteria.orderBy(cb.asc(root.get("id")));
+        return withFetchPlan(em.createQuery(criteria), fetchPlan).getResultList();
+    }
+
+    @Override
+    public List<Member> findByCondition(MemberSearchCondition condition, FetchPlan fetchPlan) {
+        TypedQuery<Member> query = em.createQuery(MemberSearchQueries.jpql(condition), Member.class);
+        if (condition.username() != null) {
+            query.setParameter("username", condition.username());
+        }
+        if (condition.ageGoe() != null) {
+            query.setParameter("ageGoe", condition.ageGoe());
+        }
+        if (condition.ageLoe() != null) {
+            query.setParameter("ageLoe", condition.ageLoe());
+        }
+        if (condition.teamName() != null) {
+            query.setParameter("teamName", condition.teamName());
+        }
+        return withFetchPlan(query, fetchPlan).getResultList();
+    }
+
+    @Override
+    public <T> List<T> queryNative(String sql, Class<T> type, Object... args) {
+        flushIfInTransaction();
+        return jdbcTemplate.query(sql, rowMappers.rowMapper(type), args);
+    }
+
+    @Override
+    public <T> Stream<T> streamNative(String sql, Class<T> type, int fetchSize, Object... args) {
+        flushIfInTransaction();
+        // MySQL 드라이버는 useCursorFetch=true 이어야 fetchSize 단위로 나눠서 읽는다.
+        return jdbcTemplate.queryForStream(con -> {
+            var statement = con.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            new ArgumentPreparedStatementSetter(args).setValues(statement);
+            return statement;
+        }, rowMappers.rowMapper(type));
+    }
+
+    @Override
+    public Page<Member> search(String text, Pageable pageable) {
+        Pageable page = pageable.isPaged() ? pageable : PageRequest.of(0, MemberSearchIndex.MAX_RESULTS);
+        // 색인에는 남아 있지만 DB에 없는 회원(JPA 밖에서 지운 행 등)은 색인에서 지우고 다시 검색해서 content와 total을 맞춘다.
+        // 트랜잭션 안에서는 스냅샷 이후에 커밋된 회원이 안 보일 수 있으므로 색인을 고치지 않고 걸러내기만 한다.
+        boolean repair = !TransactionSynchronizationManager.isActualTransactionActive();
+        for (int attempt = 0; ; attempt++) {
+            SearchHits hits = searchIndex.search(text, (int) page.getOffset(), page.getPageSize());
+            if (hits.ids().isEmpty()) {
+                return new PageImpl<>(List.of(), page, hits.total());
+            }
+            Map<Long, Member> members = em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                    .setParameter("ids", hits.ids())
+                    .getResultStream()
+                    .collect(Collectors.toMap(Member::getId, Function.identity()));
+            List<Long> missing = hits.ids().stream()
+                    .filter(id -> !members.containsKey(id))
+                    .toList();
+            if (!missing.isEmpty() && repair && attempt < MAX_SEARCH_REPAIRS) {
+                searchIndex.delete(missing);
+                continue;
+            }
+            // 색인 순서(관련도) 유지
+            List<Member> content = hits.ids().stream()
+                    .map(members::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            return new PageImpl<>(content, page, hits.total() - missing.size());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch() {
+        em.createQuery("delete from Member m").executeUpdate();
+        memberCacheClearer.clear();
+        searchIndex.afterCommit(searchIndex::deleteAll);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        List<Long> idList = Streamable.of(ids).toList();
+        if (idList.isEmpty()) {
+            return;
+        }
+        em.createQuery("delete from Member m where m.id in :ids")
+                .setParameter("ids", idList)
+                .executeUpdate();
+        memberCacheClearer.clear();
+        searchIndex.afterCommit(() -> searchIndex.delete(idList));
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch(Iterable<Member> entities) {
+        deleteAllByIdInBatch(Streamable.of(entities).map(Member::getId).toList());
+    }
+
+    // MemberProjection 속성 이름으로 정렬한다. 같은 값이 있어도 페이지 경계가 바뀌지 않도록 마지막에 항상 id를 붙인다.
+    private static String orderBy(Sort sort) {
+        StringJoiner clause = new StringJoiner(", ", " order by ", "");
+        for (Sort.Order order : sort) {
+            String path = PROJECTION_SORT_PATHS.get(order.getProperty());
+            if (path == null) {
+                throw new IllegalArgumentException("Unsupported sort property for MemberProjection: "
+                        + order.getProperty() + " (supported: " + PROJECTION_SORT_PATHS.keySet() + ")");
+            }
+            String expression = order.isIgnoreCase() ? "lower(" + path + ")" : path;
+            clause.add(expression + (order.isAscending() ? " asc" : " desc") + switch (order.getNullHandling()) {
+                case NULLS_FIRST -> " nulls first";
+                case NULLS_LAST -> " nulls last";
+                case NATIVE -> "";
+            });
+        }
+        if (sort.getOrderFor("id") == null) {
+            clause.add("m.id");
+        }
+        return clause.toString();
+    }
+
+    // 하이버네이트 네이티브 쿼리처럼, 아직 DB에 반영되지 않은 변경을 먼저 flush해서 조회 결과에 포함시킨다.
+    private void flushIfInTransaction() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            em.flush();
+        }
+    }
+
+    private TypedQuery<Member> withFetchPlan(TypedQuery<Member> query, FetchPlan fetchPlan) {
+        fetchPlan.hints(em, Member.class).forEach(query::setHint);
+        return query;
+    }
 }
@@ -0,0 +1,80 @@
+package study.datajpa.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import study.datajpa.dto.MemberSearchCondition;
+
+/**
+ * MemberSearchCondition의 조건 조합(shape)별 JPQL을 만들어 캐시한다.
+ * <p>
+ * 같은 조건 조합이면 항상 같은 JPQL 문자열이 나오므로 하이버네이트 쿼리 계획 캐시(query plan cache)를 재사용한다.
+ * Criteria API로 매번 쿼리를 만들면 파라미터 값만 다른 같은 모양의 쿼리도 매번 새로 해석된다.
+ * team은 팀 이름으로 필터링하거나 결과에서 team을 쓸 때만 join 한다.
+ */
+final class MemberSearchQueries {
+    private static final int USERNAME = 1;
+    private static final int AGE_GOE = 1 << 1;
+    private static final int AGE_LOE = 1 << 2;
+    private static final int TEAM_NAME = 1 << 3;
+    private static final int FETCH_TEAM = 1 << 4;
+
+    private static final Map<Integer, String> QUERIES = new ConcurrentHashMap<>();
+
+    private MemberSearchQueries() {
+    }
+
+    static String jpql(MemberSearchCondition condition) {
+        return QUERIES.computeIfAbsent(shape(condition), MemberSearchQueries::build);
+    }
+
+    static int shape(MemberSearchCondition condition) {
+        int shape = 0;
+        if (condition.username() != null) {
+            shape |= USERNAME;
+        }
+        if (condition.ageGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.ageLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        if (condition.teamName() != null) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.fetchTeam()) {
+            shape |= FETCH_TEAM;
+        }
+        return shape;
+    }
+
+    private static String build(int shape) {
+        StringBuilder jpql = new StringBuilder("select m from Member m");
+        boolean filterTeam = (shape & TEAM_NAME) != 0;
+        boolean fetchTeam = (shape & FETCH_TEAM) != 0;
+        if (filterTeam && fetchTeam) {
+            jpql.append(" join fetch m.team t");
+        } else if (filterTeam) {
+            jpql.append(" join m.team t");
+        } else if (fetchTeam) {
+            jpql.append(" left join fetch m.team t");
+        }
+
+        String prefix = " where ";
+        if ((shape & USERNAME) != 0) {
+            jpql.append(prefix).append("m.username = :username");
+            prefix = " and ";
+        }
+        if ((shape & AGE_GOE) != 0) {
+            jpql.append(prefix).append("m.age >= :ageGoe");
+            prefix = " and ";
+        }
+        if ((shape & AGE_LOE) != 0) {
+            jpql.append(prefix).append("m.age <= :ageLoe");
+            prefix = " and ";
+        }
+        if (filterTeam) {
+            jpql.append(prefix).append("t.name = :teamName");
+        }
+        return jpql.append(" order by m.id").toString();
+    }
+}
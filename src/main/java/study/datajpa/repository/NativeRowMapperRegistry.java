@@ -0,0 +1,183 @@
+package study.datajpa.repository;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import study.datajpa.dto.MemberDto;
+
+/**
+ * 네이티브 쿼리 결과(ResultSet)를 record/DTO 생성자로 바로 매핑하는 RowMapper를 만든다.
+ * <p>
+ * 생성자 탐색(리플렉션)은 타입마다 한 번만 하고, 생성자는 Object[]를 받는 MethodHandle로 바꿔서 재사용한다.
+ * 컬럼 위치와 타입별 ResultSet getter도 쿼리 결과의 첫 row에서 한 번 결정하므로, row마다 리플렉션이나 프록시가 없다.
+ * <p>
+ * 생성자 파라미터 이름과 컬럼 label을 대소문자, '_'를 무시하고 비교한다. (ex. teamName = team_name = TEAMNAME)
+ * record는 canonical 생성자, 일반 클래스는 파라미터가 가장 많은 public 생성자를 사용한다. (-parameters 컴파일 옵션 필요)
+ */
+@Component
+class NativeRowMapperRegistry {
+    private final Map<Class<?>, RowMapperFactory<?>> factories = new ConcurrentHashMap<>();
+
+    NativeRowMapperRegistry() {
+        // 자주 쓰는 타입은 애플리케이션 시작 시점에 미리 만들어둔다.
+        List.of(MemberDto.class, MemberProjectionView.class, UsernameOnlyView.class).forEach(this::factory);
+    }
+
+    <T> RowMapper<T> rowMapper(Class<T> type) {
+        return factory(type).newRowMapper();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RowMapperFactory<T> factory(Class<T> type) {
+        return (RowMapperFactory<T>) factories.computeIfAbsent(type, RowMapperFactory::create);
+    }
+
+    private static final class RowMapperFactory<T> {
+        private final Class<T> type;
+        private final MethodHandle constructor;     // (Object[]) -> Object
+        private final String[] names;
+        private final Class<?>[] parameterTypes;
+
+        private RowMapperFactory(Class<T> type, MethodHandle constructor, String[] names, Class<?>[] parameterTypes) {
+            this.type = type;
+            this.constructor = constructor;
+            this.names = names;
+            this.parameterTypes = parameterTypes;
+        }
+
+        static <T> RowMapperFactory<T> create(Class<T> type) {
+            Constructor<?> target = findConstructor(type);
+            Parameter[] parameters = target.getParameters();
+            String[] names = new String[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                if (!parameters[i].isNamePresent() && !type.isRecord()) {
+                    throw new InvalidDataAccessApiUsageException(
+                            "생성자 파라미터 이름을 알 수 없습니다. -parameters 옵션으로 컴파일해야 합니다: " + type.getName());
+                }
+                names[i] = normalize(parameters[i].getName());
+            }
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                for (int i = 0; i < components.length; i++) {
+                    names[i] = normalize(components[i].getName());
+                }
+            }
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                MethodHandle handle = lookup.unreflectConstructor(target)
+                        .asSpreader(Object[].class, parameters.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                return new RowMapperFactory<>(type, handle, names, target.getParameterTypes());
+            } catch (IllegalAccessException e) {
+                throw new InvalidDataAccessApiUsageException("생성자에 접근할 수 없습니다: " + type.getName(), e);
+            }
+        }
+
+        private static Constructor<?> findConstructor(Class<?> type) {
+            try {
+                if (type.isRecord()) {
+                    Class<?>[] componentTypes = Arrays.stream(type.getRecordComponents())
+                            .map(RecordComponent::getType)
+                            .toArray(Class<?>[]::new);
+                    return type.getDeclaredConstructor(componentTypes);
+                }
+            } catch (NoSuchMethodException e) {
+                throw new InvalidDataAccessApiUsageException("canonical 생성자가 없습니다: " + type.getName(), e);
+            }
+            return Arrays.stream(type.getConstructors())
+                    .max(Comparator.comparingInt(Constructor::getParameterCount))
+                    .orElseThrow(() -> new InvalidDataAccessApiUsageException(
+                            "public 생성자가 없습니다: " + type.getName()));
+        }
+
+        RowMapper<T> newRowMapper() {
+            return new BoundRowMapper();
+        }
+
+        // 쿼리마다 새로 만들고, 첫 row에서 컬럼 위치와 getter를 결정한다.
+        private final class BoundRowMapper implements RowMapper<T> {
+            private ColumnReader[] readers;
+
+            @Override
+            public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+                if (readers == null) {
+                    readers = bind(rs.getMetaData());
+                }
+                Object[] args = new Object[readers.length];
+                for (int i = 0; i < readers.length; i++) {
+                    args[i] = readers[i].read(rs);
+                }
+                try {
+                    return type.cast(constructor.invokeExact(args));
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        private ColumnReader[] bind(ResultSetMetaData metaData) throws SQLException {
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.putIfAbsent(normalize(metaData.getColumnLabel(i)), i);
+            }
+            ColumnReader[] readers = new ColumnReader[names.length];
+            for (int i = 0; i < names.length; i++) {
+                Integer column = columns.get(names[i]);
+                if (column == null) {
+                    throw new InvalidDataAccessApiUsageException(
+                            type.getSimpleName() + "의 " + names[i] + "에 해당하는 컬럼이 조회 결과에 없습니다: " + columns.keySet());
+                }
+                readers[i] = ColumnReader.of(parameterTypes[i], column);
+            }
+            return readers;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs) throws SQLException;
+
+        static ColumnReader of(Class<?> type, int column) {
+            if (type == String.class) {
+                return rs -> rs.getString(column);
+            }
+            if (type == long.class) {
+                return rs -> rs.getLong(column);
+            }
+            if (type == int.class) {
+                return rs -> rs.getInt(column);
+            }
+            if (type == double.class) {
+                return rs -> rs.getDouble(column);
+            }
+            if (type == boolean.class) {
+                return rs -> rs.getBoolean(column);
+            }
+            // 래퍼 타입, 날짜, UUID 등은 드라이버 변환 사용 (null 유지)
+            Class<?> boxed = MethodType.methodType(type).wrap().returnType();
+            return rs -> rs.getObject(column, boxed);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.repository;
+
+/**
+ * NestedClosedProjections의 record 구현체.
+ * 프록시 방식은 Team 엔티티 전체를 조회하지만, 여기서는 join 한 번으로 team.name 컬럼만 가져온다.
+ */
+public record NestedClosedProjectionsView(String username, TeamInfoView team) implements NestedClosedProjections {
+
+    // JPQL 생성자 표현식은 중첩 생성자를 지원하지 않으므로 평평한(flat) 인자를 받는 생성자를 따로 둔다.
+    public NestedClosedProjectionsView(String username, String teamName) {
+        this(username, teamName == null ? null : new TeamInfoView(teamName));
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public TeamInfo getTeam() {
+        return team;
+    }
+
+    public record TeamInfoView(String name) implements TeamInfo {
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -1,8 +1,58 @@
 package study.datajpa.repository;
 
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import study.datajpa.dto.TeamMemberStatsDto;
 import study.datajpa.entity.Team;
+import study.datajpa.entity.TeamSummary;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+    // team.getMembers().size()는 멤버 전체를 조회하므로 집계는 쿼리로 직접 계산
+    @Query("select count(m) from Member m where m.team.id = :teamId")
+    long countMembers(@Param("teamId") Long teamId);
+
+    @Query("select avg(m.age) from Member m where m.team.id = :teamId")
+    Double findAverageAge(@Param("teamId") Long teamId);
+
+    @Query("select new study.datajpa.dto.TeamMemberStatsDto(t.id, t.name, count(m), avg(m.age))"
+            + " from Team t left join t.members m"
+            + " group by t.id, t.name")
+    List<TeamMemberStatsDto> findTeamMemberStats();
+
+    // 요약 테이블(team_summary) 조회. 대시보드는 팀당 1 row만 읽는다.
+    @Query("select s from TeamSummary s order by s.teamId")
+    List<TeamSummary> findSummaries();
+
+    @Query("select s from TeamSummary s where s.teamId = :teamId")
+    Optional<TeamSummary> findSummary(@Param("teamId") Long teamId);
+
+    @Query("select min(s.refreshedAt) from TeamSummary s")
+    Instant findOldestSummaryRefresh();
+
+    // 요약 테이블 재계산 (TeamSummaryRefresher). delete -> insert select -> refreshedAt 갱신을 한 트랜잭션에서 실행
+    @Modifying
+    @Query("delete from TeamSummary s")
+    int deleteSummaries();
+
+    @Modifying
+    @Query("insert into TeamSummary (teamId, teamName, memberCount, averageAge, minAge, maxAge,"
+            + " ageUnder20, age20s, age30s, age40AndOver)"
+            + " select t.id, t.name, count(m), avg(m.age), min(m.age), max(m.age),"
+            + " sum(case when m.age < 20 then 1 else 0 end),"
+            + " sum(case when m.age >= 20 and m.age < 30 then 1 else 0 end),"
+            + " sum(case when m.age >= 30 and m.age < 40 then 1 else 0 end),"
+            + " sum(case when m.age >= 40 then 1 else 0 end)"
+            + " from Team t left join t.members m"
+            + " group by t.id, t.name")
+    int insertSummaries();
+
+    @Modifying(clearAutomatically = true)
+    @Query("update TeamSummary s set s.refreshedAt = :refreshedAt")
+    int markSummariesRefreshed(@Param("refreshedAt") Instant refreshedAt);
 }
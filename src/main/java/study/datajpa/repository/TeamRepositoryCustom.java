@@ -0,0 +1,12 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Team;
+
+public interface TeamRepositoryCustom {
+    // JpaRepository의 벌크 삭제를 대신한다. TeamCacheEvictionListener를 거치지 않으므로 MemberCache를 직접 비운다.
+    void deleteAllInBatch();
+
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    void deleteAllInBatch(Iterable<Team> entities);
+}
@@ -0,0 +1,42 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.cache.MemberCacheClearer;
+import study.datajpa.entity.Team;
+
+@RequiredArgsConstructor
+public class TeamRepositoryCustomImpl implements TeamRepositoryCustom {
+
+    private final EntityManager em;
+    private final MemberCacheClearer memberCacheClearer;
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch() {
+        em.createQuery("delete from Team t").executeUpdate();
+        memberCacheClearer.clear();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        List<Long> idList = Streamable.of(ids).toList();
+        if (idList.isEmpty()) {
+            return;
+        }
+        em.createQuery("delete from Team t where t.id in :ids")
+                .setParameter("ids", idList)
+                .executeUpdate();
+        memberCacheClearer.clear();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch(Iterable<Team> entities) {
+        deleteAllByIdInBatch(Streamable.of(entities).map(Team::getId).toList());
+    }
+}
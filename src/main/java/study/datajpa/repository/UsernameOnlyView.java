@@ -0,0 +1,18 @@
+package study.datajpa.repository;
+
+/**
+ * UsernameOnly의 record 구현체. JPQL 생성자 표현식(select new ...)으로 바로 생성되므로
+ * 스프링 데이터의 프록시/TupleBackedMap을 거치지 않는다.
+ * Open Projection(@Value SpEL)은 엔티티 전체를 조회해야 하지만, 여기서는 필요한 컬럼(age)만 조회해서 직접 계산한다.
+ */
+public record UsernameOnlyView(String username, int age) implements UsernameOnly {
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getUsernameAndAge() {
+        return username + " " + age;
+    }
+}
@@ -0,0 +1,360 @@
+package study.datajpa.search;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.UsernameKey;
+
+/**
+ * 회원 username 검색용 역색인 (Lucene).
+ * <p>
+ * username을 UsernameKey.normalize 한 값으로 색인한다.
+ * - key: 정규화한 이름 전체. 정확히 일치, prefix, 오타 허용(fuzzy) 검색
+ * - grams: 2~3글자 n-gram. 부분 문자열 검색 (LIKE '%x%' 대신 검색어의 n-gram이 모두 있는 문서)
+ * <p>
+ * 색인 변경은 바로 검색에 반영되고(NRT), 디스크 커밋은 commit-interval 마다 한다.
+ * 커밋 전에 프로세스가 죽으면 마지막 커밋 이후 변경이 빠지므로 MemberSearchReindexer로 다시 색인한다.
+ * index-dir이 비어 있으면 메모리에만 색인한다. (테스트 프로필)
+ * <p>
+ * 재색인(MemberSearchReindexer) 중에는 청크를 읽은 뒤 리스너가 더 최신 값을 색인하거나 문서를 지울 수 있다.
+ * 재색인 중 리스너로 색인/삭제된 회원은 재색인 청크에서 건너뛰어서, 읽어둔 이전 값으로 덮어쓰지 않는다.
+ * 확인과 쓰기가 한 번에 일어나야 하므로 색인 쓰기는 writeLock으로 직렬화한다. (n-gram 분석 비용은 DB 조회에 비해 작음)
+ */
+@Slf4j
+@Component
+public class MemberSearchIndex {
+    public static final int MAX_RESULTS = 10_000;
+
+    static final String ID = "id";
+    static final String ID_SORT = "id_sort";
+    static final String KEY = "key";
+    static final String GRAMS = "grams";
+    static final String GENERATION = "generation";
+    static final int MIN_GRAM = 2;
+    static final int MAX_GRAM = 3;
+
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG));
+
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    // 전체 재색인 시 이번 재색인에서 다시 쓰지 않은 문서(삭제된 회원)를 지우기 위한 세대 번호
+    private long generation = System.currentTimeMillis();
+    // 재색인 중일 때만 존재 (writeLock)
+    private ReindexFence fence;
+
+    public MemberSearchIndex(@Value("${member-search.index-dir:build/member-search-index}") String indexDir)
+            throws IOException {
+        this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(new NGramAnalyzer())
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public void index(Long memberId, String username) {
+        synchronized (writeLock) {
+            if (fence != null) {
+                fence.touched.add(memberId);
+            }
+            update(memberId, username);
+        }
+    }
+
+    public void delete(Long memberId) {
+        delete(List.of(memberId));
+    }
+
+    public void delete(Collection<Long> memberIds) {
+        synchronized (writeLock) {
+            try {
+                for (Long memberId : memberIds) {
+                    if (fence != null) {
+                        fence.touched.add(memberId);
+                    }
+                    writer.deleteDocuments(idTerm(memberId));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        changed.set(true);
+    }
+
+    public void deleteAll() {
+        synchronized (writeLock) {
+            if (fence != null) {
+                // 재색인이 이미 읽어둔 회원을 다시 넣지 않도록 남은 청크를 모두 건너뜀
+                fence.cleared = true;
+            }
+            try {
+                writer.deleteAll();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        changed.set(true);
+    }
+
+    /**
+     * 트랜잭션 커밋 후에 색인을 변경한다. (롤백된 변경은 색인하지 않음)
+     * 이미 커밋된 트랜잭션을 색인 실패로 실패 처리하지 않도록 예외는 로그만 남긴다. 빠진 문서는 재색인으로 복구
+     */
+    public void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runQuietly(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runQuietly(action);
+            }
+        });
+    }
+
+    // 재색인 청크. 재색인 중 리스너가 색인/삭제한 회원은 이미 더 최신이므로 건너뜀
+    void reindexChunk(List<Member> members) {
+        synchronized (writeLock) {
+            for (Member member : members) {
+                if (fence != null && (fence.cleared || fence.touched.contains(member.getId()))) {
+                    continue;
+                }
+                update(member.getId(), member.getUsername());
+            }
+        }
+    }
+
+    /**
+     * 관련도 순(같으면 id 순)으로 회원 id를 찾는다.
+     * 결과는 최대 MAX_RESULTS 건까지 페이징할 수 있다. 그 뒤의 페이지는 id 없이 전체 건수만 돌려준다.
+     */
+    public SearchHits search(String text, int offset, int size) {
+        String key = UsernameKey.normalize(text);
+        if (key == null || key.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+        Query query = buildQuery(key);
+        try {
+            refreshIfChanged();
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                if (offset >= MAX_RESULTS) {
+                    return new SearchHits(List.of(), searcher.count(query));
+                }
+                TopDocs top = searcher.search(query, Math.min(offset + size, MAX_RESULTS), RELEVANCE);
+                List<Long> ids = new ArrayList<>();
+                for (int i = offset; i < top.scoreDocs.length; i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    ids.add(Long.valueOf(searcher.storedFields().document(hit.doc).get(ID)));
+                }
+                return new SearchHits(ids, searcher.count(query));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int documentCount() {
+        try {
+            refreshIfChanged();
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 재색인 시작. 이후 색인되는 문서는 새 세대 번호를 가진다.
+     */
+    long beginReindex() {
+        synchronized (writeLock) {
+            generation = Math.max(System.currentTimeMillis(), generation + 1);
+            fence = new ReindexFence();
+            return generation;
+        }
+    }
+
+    /**
+     * 재색인 완료. reindexGeneration 이전 세대의 문서(재색인 중 다시 쓰지 않은 문서)를 지우고 디스크에 커밋한다.
+     */
+    void finishReindex(long reindexGeneration) {
+        synchronized (writeLock) {
+            try {
+                writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, reindexGeneration - 1));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                fence = null;
+            }
+        }
+        changed.set(true);
+        commit();
+    }
+
+    // 재색인 실패. 이전 세대 문서는 지우지 않고 그대로 둔다.
+    void abortReindex() {
+        synchronized (writeLock) {
+            fence = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${member-search.commit-interval:5000}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.warn("member search index commit failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        // IndexWriter.close()는 남은 변경을 커밋한다.
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    // 색인이 바뀐 경우에만 검색 시점에 새 searcher를 연다. (쓰기 직후 검색해도 반영됨)
+    private void refreshIfChanged() throws IOException {
+        if (changed.getAndSet(false)) {
+            searcherManager.maybeRefreshBlocking();
+        }
+    }
+
+    // writeLock 안에서 호출
+    private void update(Long memberId, String username) {
+        try {
+            writer.updateDocument(idTerm(memberId), document(memberId, username));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        changed.set(true);
+    }
+
+    private static void runQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("member search index update failed", e);
+        }
+    }
+
+    private Document document(Long memberId, String username) {
+        String key = UsernameKey.normalize(username);
+        Document document = new Document();
+        document.add(new StringField(ID, memberId.toString(), Store.YES));
+        document.add(new NumericDocValuesField(ID_SORT, memberId));
+        document.add(new LongPoint(GENERATION, generation));
+        if (key != null) {
+            document.add(new StringField(KEY, key, Store.NO));
+            document.add(new TextField(GRAMS, key, Store.NO));
+        }
+        return document;
+    }
+
+    private static Term idTerm(Long memberId) {
+        return new Term(ID, memberId.toString());
+    }
+
+    // 점수: 정확히 일치 > prefix > 부분 문자열 > 오타 허용
+    static Query buildQuery(String key) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(new BoostQuery(new TermQuery(new Term(KEY, key)), 10), Occur.SHOULD);
+        query.add(new BoostQuery(new PrefixQuery(new Term(KEY, key)), 4), Occur.SHOULD);
+        int length = key.codePointCount(0, key.length());
+        if (length >= MIN_GRAM) {
+            query.add(new BoostQuery(substringQuery(key), 2), Occur.SHOULD);
+        }
+        if (length >= 3) {
+            // 짧은 이름에 편집 거리 2를 허용하면 관련 없는 이름이 너무 많이 걸림
+            query.add(new FuzzyQuery(new Term(KEY, key), length >= 6 ? 2 : 1), Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    // 검색어의 n-gram(검색어가 길면 3글자, 2글자면 2글자)이 모두 있는 문서. 색인과 같이 코드 포인트 단위로 자른다.
+    private static Query substringQuery(String key) {
+        int[] codePoints = key.codePoints().toArray();
+        int gram = Math.min(MAX_GRAM, codePoints.length);
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i + gram <= codePoints.length; i++) {
+            query.add(new TermQuery(new Term(GRAMS, new String(codePoints, i, gram))), Occur.MUST);
+        }
+        return query.build();
+    }
+
+    /**
+     * @param ids   관련도 순 회원 id
+     * @param total 전체 일치 건수
+     */
+    public record SearchHits(List<Long> ids, long total) {
+        static final SearchHits EMPTY = new SearchHits(List.of(), 0);
+    }
+
+    private static final class ReindexFence {
+        private final Set<Long> touched = new HashSet<>();
+        private boolean cleared;
+    }
+
+    private static final class NGramAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new NGramTokenizer(MIN_GRAM, MAX_GRAM);
+            return new TokenStreamComponents(tokenizer);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+/**
+ * Member 저장/변경/삭제를 커밋 후에 MemberSearchIndex에 반영하는 엔티티 리스너. (롤백된 변경은 색인하지 않음)
+ * 벌크 연산(deleteAllInBatch 등)과 write-behind의 JDBC update는 엔티티 리스너를 거치지 않으므로
+ * MemberRepositoryCustomImpl의 벌크 삭제와 MemberWriteBehindBuffer가 직접 색인을 변경한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberSearchIndexListener {
+    private final MemberSearchIndex searchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void index(Member member) {
+        Long id = member.getId();
+        String username = member.getUsername();
+        searchIndex.afterCommit(() -> searchIndex.index(id, username));
+    }
+
+    @PostRemove
+    public void delete(Member member) {
+        Long id = member.getId();
+        searchIndex.afterCommit(() -> searchIndex.delete(id));
+    }
+}
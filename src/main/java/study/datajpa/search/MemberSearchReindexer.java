@@ -0,0 +1,65 @@
+package study.datajpa.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import study.datajpa.batch.MemberBatchJob;
+import study.datajpa.batch.MemberBatchRunner;
+
+/**
+ * DB의 Member 전체로 검색 색인을 다시 만든다.
+ * MemberBatchRunner로 id 범위를 나눠 병렬로 읽고, 청크마다 색인한다. (IndexWriter는 여러 스레드에서 동시에 사용 가능)
+ * <p>
+ * 기존 색인을 비우지 않고 덮어쓴 뒤 마지막에 이번 재색인에서 다시 쓰지 않은 문서만 지우므로, 재색인 중에도 검색할 수 있다.
+ * 재색인 중 커밋된 변경(MemberSearchIndexListener)은 재색인이 읽은 값보다 우선한다. (MemberSearchIndex.reindexChunk)
+ */
+@Slf4j
+@Component
+public class MemberSearchReindexer {
+    static final String JOB_NAME = "member-search-reindex";
+
+    private final MemberBatchRunner batchRunner;
+    private final MemberSearchIndex searchIndex;
+    private final int partitions;
+    private final int chunkSize;
+    private final boolean reindexOnStartup;
+
+    public MemberSearchReindexer(MemberBatchRunner batchRunner, MemberSearchIndex searchIndex,
+                                 @Value("${member-search.reindex.partitions:8}") int partitions,
+                                 @Value("${member-search.reindex.chunk-size:1000}") int chunkSize,
+                                 @Value("${member-search.reindex.on-startup:false}") boolean reindexOnStartup) {
+        this.batchRunner = batchRunner;
+        this.searchIndex = searchIndex;
+        this.partitions = partitions;
+        this.chunkSize = chunkSize;
+        this.reindexOnStartup = reindexOnStartup;
+    }
+
+    /**
+     * @return 색인한 회원 수
+     */
+    public synchronized long reindex() {
+        long generation = searchIndex.beginReindex();
+        // 이전 재색인의 체크포인트가 남아 있으면 이어서 실행되므로 처음부터 다시 실행
+        long indexed;
+        try {
+            batchRunner.reset(JOB_NAME);
+            indexed = batchRunner.run(new MemberBatchJob(JOB_NAME, partitions, chunkSize, searchIndex::reindexChunk));
+        } catch (RuntimeException e) {
+            searchIndex.abortReindex();
+            throw e;
+        }
+        searchIndex.finishReindex(generation);
+        log.info("member search index rebuilt with {} members", indexed);
+        return indexed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnStartup() {
+        if (reindexOnStartup) {
+            reindex();
+        }
+    }
+}
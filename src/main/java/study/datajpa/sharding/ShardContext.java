@@ -0,0 +1,24 @@
+package study.datajpa.sharding;
+
+/**
+ * 현재 스레드가 사용할 샤드 번호. ShardRoutingDataSource가 커넥션을 얻을 때 참조한다.
+ * 값이 없으면 0번 샤드(기본 샤드)를 사용한다.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(int shard) {
+        CURRENT.set(shard);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.sharding;
+
+/**
+ * 샤드 키(테넌트 id, 팀 id 등)를 샤드 번호로 변환한다.
+ * 연속된 id가 한 샤드에 몰리지 않도록 해시를 섞은 뒤 나머지 연산을 한다.
+ */
+public class ShardRouter {
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(long shardKey) {
+        // murmur3 fmix64
+        long h = shardKey;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) shardCount);
+    }
+}
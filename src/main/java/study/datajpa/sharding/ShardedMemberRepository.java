@@ -0,0 +1,247 @@
+package study.datajpa.sharding;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * MemberRepository/TeamRepository를 샤드 단위로 실행하는 계층.
+ * <p>
+ * - 단건 쓰기/조회: 샤드 키로 샤드를 고른 뒤 그 샤드의 트랜잭션 안에서 기존 리포지토리를 그대로 사용한다.
+ * - 샤드 간 조회: 모든 샤드에 병렬로 조회(scatter)한 뒤 정렬 기준으로 병합(gather)한다.
+ * <p>
+ * 트랜잭션이 시작되어 커넥션을 얻은 직후 ShardContext를 비우기 때문에, 하이버네이트 id 생성기(별도 커넥션)는
+ * 항상 0번 샤드의 시퀀스 테이블을 사용한다. 그래서 id는 샤드와 상관없이 전체에서 유일하다.
+ * 샤드 간 트랜잭션(2PC)은 지원하지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardedMemberRepository implements DisposableBean {
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService scatterExecutor;
+
+    public ShardedMemberRepository(MemberRepository memberRepository, TeamRepository teamRepository,
+                                   ShardRouter shardRouter, PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.teamRepository = teamRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scatterExecutor = Executors.newFixedThreadPool(shardRouter.getShardCount());
+    }
+
+    public MemberRepository members() {
+        return memberRepository;
+    }
+
+    public TeamRepository teams() {
+        return teamRepository;
+    }
+
+    /**
+     * 샤드 키에 해당하는 샤드에서 하나의 트랜잭션으로 작업을 실행한다.
+     * ex) sharded.execute(teamKey, () -> sharded.members().save(new Member("member1", 10, team)))
+     */
+    public <T> T execute(long shardKey, Supplier<T> work) {
+        return executeOnShard(shardRouter.shardFor(shardKey), work);
+    }
+
+    public <T> T executeOnShard(int shard, Supplier<T> work) {
+        ShardContext.set(shard);
+        try {
+            return transactionTemplate.execute(status -> {
+                // 커넥션은 트랜잭션 시작 시점에 이미 얻었으므로, 이후 새로 얻는 커넥션(id 생성기)은 기본 샤드로 보냄
+                ShardContext.clear();
+                return work.get();
+            });
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    public long count() {
+        return scatter(shard -> executeOnShard(shard, memberRepository::count)).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    public List<Member> findByUsername(String username) {
+        List<Member> result = new ArrayList<>();
+        scatter(shard -> executeOnShard(shard, () -> memberRepository.findByUsername(username)))
+                .forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * MemberRepository.findByAge(int, Pageable)의 샤드 간 버전.
+     * 각 샤드에서 (offset + size)건까지 같은 정렬로 가져와서, 이미 정렬된 샤드별 결과를 k-way 병합하며 (offset + size)건만 꺼낸다.
+     * 정렬 키(team.name 같은 연관관계 경로 포함)는 샤드 트랜잭션 안에서 읽어두고, 병합은 그 키로만 비교한다.
+     * 뒤쪽 페이지일수록 샤드마다 읽는 양이 늘어나므로 깊은 페이지는 keyset 방식 조회를 권장한다.
+     */
+    public Page<Member> findByAge(int age, Pageable pageable) {
+        int window = (int) pageable.getOffset() + pageable.getPageSize();
+        Pageable shardPageable = PageRequest.of(0, window, pageable.getSort());
+        Function<Object, Object[]> sortKeys = sortKeys(Member.class, pageable.getSort());
+        List<ShardPage<Member>> pages = scatter(shard -> executeOnShard(shard, () -> {
+            Page<Member> page = memberRepository.findByAge(age, shardPageable);
+            // 영속성 컨텍스트가 열려 있을 때 읽어야 지연 로딩 연관관계(team 등)를 따라갈 수 있다.
+            List<Keyed<Member>> rows = page.getContent().stream()
+                    .map(member -> new Keyed<>(member, sortKeys.apply(member)))
+                    .toList();
+            return new ShardPage<>(rows, page.getTotalElements());
+        }));
+
+        long total = pages.stream().mapToLong(ShardPage::total).sum();
+        Comparator<Object[]> byKeys = keyComparator(pageable.getSort());
+        List<Keyed<Member>> merged = merge(pages.stream().map(ShardPage::rows).toList(),
+                (a, b) -> byKeys.compare(a.keys(), b.keys()), window);
+
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        return new PageImpl<>(merged.subList(from, merged.size()).stream().map(Keyed::value).toList(),
+                pageable, total);
+    }
+
+    private <T> List<T> scatter(IntFunction<T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(target), scatterExecutor));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * 각각 comparator 순서로 정렬된 목록들을 병합해서 앞에서부터 limit건만 반환한다.
+     * 우선순위 큐에는 목록마다 다음 원소 하나씩만 들어가므로 O(limit * log(목록 수))
+     * 비교 결과가 같으면 앞 목록(샤드 번호가 작은 쪽)의 원소가 먼저 나온다.
+     */
+    static <T> List<T> merge(List<List<T>> sortedLists, Comparator<? super T> comparator, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                Comparator.<Cursor<T>, T>comparing(Cursor::head, comparator).thenComparingInt(Cursor::list));
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                heads.add(new Cursor<>(sortedLists.get(i), i, 0));
+            }
+        }
+        List<T> merged = new ArrayList<>(Math.min(limit, sortedLists.stream().mapToInt(List::size).sum()));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Cursor<T> cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.index() + 1 < cursor.values().size()) {
+                heads.add(new Cursor<>(cursor.values(), cursor.list(), cursor.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Sort.Order 순서대로 정렬 키를 꺼내는 함수. 속성 접근자(getter)는 Sort.Order마다 한 번만 찾는다.
+     * ignoreCase 이면 DB(lower(...))와 같이 소문자로 바꾼 값을 키로 쓴다.
+     */
+    static Function<Object, Object[]> sortKeys(Class<?> type, Sort sort) {
+        List<Function<Object, Object>> accessors = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Function<Object, Object> accessor = accessor(type, order.getProperty());
+            accessors.add(order.isIgnoreCase()
+                    ? accessor.andThen(value -> value instanceof String text ? text.toLowerCase(Locale.ROOT) : value)
+                    : accessor);
+        }
+        return target -> {
+            Object[] keys = new Object[accessors.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = accessors.get(i).apply(target);
+            }
+            return keys;
+        };
+    }
+
+    /**
+     * 각 샤드에서 DB가 정렬한 것과 같은 기준으로 정렬 키를 비교한다.
+     * nulls first/last를 지정하지 않으면(NATIVE) null을 가장 작은 값으로 취급한다. (MySQL/H2 정렬과 동일)
+     */
+    static Comparator<Object[]> keyComparator(Sort sort) {
+        Comparator<Object[]> comparator = (a, b) -> 0;
+        int index = 0;
+        for (Sort.Order order : sort) {
+            int position = index++;
+            Comparator<Object> values = order.isAscending() ? ShardedMemberRepository::compareValues
+                    : (a, b) -> compareValues(b, a);
+            boolean nullsFirst = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                case NATIVE -> order.isAscending();
+            };
+            Comparator<Object> byKey = nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values);
+            comparator = comparator.thenComparing(keys -> keys[position], byKey);
+        }
+        return comparator;
+    }
+
+    // "team.name" 같은 중첩 경로도 지원. 중간 값이 null이면 null
+    private static Function<Object, Object> accessor(Class<?> type, String path) {
+        Function<Object, Object> accessor = Function.identity();
+        Class<?> current = type;
+        for (String property : path.split("\\.")) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(current, property);
+            if (descriptor == null || descriptor.getReadMethod() == null) {
+                throw new IllegalArgumentException("No readable property '" + property + "' on " + current.getName());
+            }
+            Method getter = descriptor.getReadMethod();
+            ReflectionUtils.makeAccessible(getter);
+            accessor = accessor.andThen(target -> target == null ? null : ReflectionUtils.invokeMethod(getter, target));
+            current = getter.getReturnType();
+        }
+        return accessor;
+    }
+
+    // null은 keyComparator에서 먼저 처리한다.
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    @Override
+    public void destroy() {
+        scatterExecutor.shutdown();
+    }
+
+    private record Keyed<T>(T value, Object[] keys) {
+    }
+
+    private record ShardPage<T>(List<Keyed<T>> rows, long total) {
+    }
+
+    // list: 목록 번호, index: 다음에 꺼낼 위치
+    private record Cursor<T>(List<T> values, int list, int index) {
+        T head() {
+            return values.get(index);
+        }
+    }
+}
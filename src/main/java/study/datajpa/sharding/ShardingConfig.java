@@ -0,0 +1,70 @@
+package study.datajpa.sharding;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * sharding.enabled=true 일 때 spring.datasource 대신 여러 개의 H2 DB를 샤드로 사용한다.
+ * <p>
+ * sharding.url-template의 {0}에 샤드 번호가 들어간다. (기본값은 로컬 테스트용 메모리 DB)
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public DataSource shardRoutingDataSource(
+            @Value("${sharding.shard-count:2}") int shardCount,
+            @Value("${sharding.url-template:jdbc:h2:mem:datajpa_shard{0};MODE=MySQL;DB_CLOSE_DELAY=-1}") String urlTemplate,
+            @Value("${sharding.username:sa}") String username,
+            @Value("${sharding.password:}") String password) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(DataSourceBuilder.create()
+                    .url(urlTemplate.replace("{0}", String.valueOf(i)))
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // DataSource 빈은 p6spy가 감싸서(decorate) 다른 타입이 되므로 ShardRoutingDataSource 타입으로 주입받지 않는다.
+    @Bean
+    public ShardRouter shardRouter(@Value("${sharding.shard-count:2}") int shardCount) {
+        return new ShardRouter(shardCount);
+    }
+
+    // ddl-auto는 기본 샤드(0번)에만 적용되므로 나머지 샤드에도 같은 스키마를 만든다.
+    @Bean
+    public SmartInitializingSingleton shardSchemaInitializer(ShardRouter shardRouter,
+                                                             EntityManagerFactory entityManagerFactory,
+                                                             @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return () -> {
+            if (!ddlAuto.startsWith("create")) {
+                return;
+            }
+            var schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+            for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+                ShardContext.set(shard);
+                try {
+                    schemaManager.dropMappedObjects(true);
+                    schemaManager.exportMappedObjects(true);
+                } finally {
+                    ShardContext.clear();
+                }
+            }
+        };
+    }
+}
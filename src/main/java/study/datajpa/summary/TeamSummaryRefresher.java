@@ -0,0 +1,84 @@
+package study.datajpa.summary;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.TeamSummary;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * team_summary 요약 테이블을 주기적으로 전체 재계산한다.
+ * <p>
+ * member insert/changeTeam/delete마다 요약 row를 증감하는 방식은 같은 팀의 회원을 저장하는 트랜잭션이
+ * 모두 팀 요약 row 하나에 update 락을 잡으므로 쓰기가 직렬화되고, 팀 이동은 두 row를 잠가 데드락 위험이 있다.
+ * 벌크 연산(bulkAgePlus)은 어차피 나이 분포 전체를 다시 계산해야 하므로 주기적인 재계산을 사용한다.
+ * <p>
+ * 재계산은 한 트랜잭션에서 delete + insert select 하므로, 읽는 쪽은 커밋 전까지 이전 요약을 그대로 본다.
+ */
+@Slf4j
+@Component
+public class TeamSummaryRefresher {
+    private final TeamRepository teamRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxStaleness;
+
+    public TeamSummaryRefresher(TeamRepository teamRepository, PlatformTransactionManager transactionManager,
+                                @Value("${team-summary.max-staleness:5m}") Duration maxStaleness) {
+        this.teamRepository = teamRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxStaleness = maxStaleness;
+    }
+
+    @Scheduled(fixedDelayString = "${team-summary.refresh-interval:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // 이전 요약을 그대로 두고 다음 주기에 다시 시도
+            log.warn("team summary refresh failed", e);
+        }
+    }
+
+    /**
+     * 주기 재계산과 read-through 재계산이 동시에 delete + insert select 하면 서로의 insert가 겹쳐
+     * team_summary 키 중복으로 실패하므로 한 번에 하나만 실행한다. (트랜잭션 커밋까지 락 안에서 실행)
+     *
+     * @return 요약한 팀 수
+     */
+    public synchronized int refresh() {
+        return transactionTemplate.execute(status -> {
+            teamRepository.deleteSummaries();
+            int teams = teamRepository.insertSummaries();
+            teamRepository.markSummariesRefreshed(Instant.now());
+            return teams;
+        });
+    }
+
+    /**
+     * read-through 조회. 요약이 없거나 max-staleness보다 오래되었으면 먼저 재계산한다.
+     */
+    public List<TeamSummary> findSummaries() {
+        if (isStale()) {
+            refreshIfStale();
+        }
+        return teamRepository.findSummaries();
+    }
+
+    // 락을 기다리는 동안 다른 스레드가 재계산했으면 다시 하지 않음
+    private synchronized void refreshIfStale() {
+        if (isStale()) {
+            refresh();
+        }
+    }
+
+    private boolean isStale() {
+        Instant oldest = teamRepository.findOldestSummaryRefresh();
+        return oldest == null || oldest.isBefore(Instant.now().minus(maxStaleness));
+    }
+}
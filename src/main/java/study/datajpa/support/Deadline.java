@@ -0,0 +1,16 @@
+package study.datajpa.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 메소드의 처리 시간 상한 (밀리초). 없으면 request-deadline.default 사용
+ * 요청 헤더 X-Request-Timeout-Ms가 더 짧으면 헤더 값을 사용한다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Deadline {
+    long millis();
+}
@@ -0,0 +1,39 @@
+package study.datajpa.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * 트랜잭션 timeout을 요청의 남은 시간(RequestDeadline)으로 제한하는 JpaTransactionManager.
+ * <p>
+ * 트랜잭션 timeout은 그 안에서 실행되는 JPA 쿼리(jakarta.persistence.query.timeout)와
+ * JdbcTemplate 쿼리(Statement.setQueryTimeout)에 남은 시간으로 적용된다.
+ * 따라서 메소드별 기본값(@Transactional(timeout))과 요청 마감 시각 중 짧은 쪽으로 쿼리가 취소된다.
+ * JDBC timeout은 초 단위이므로 남은 시간은 올림 처리한다.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    public DeadlineAwareJpaTransactionManager(EntityManagerFactory emf) {
+        super(emf);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Optional<Duration> remaining = RequestDeadline.remaining();
+        if (remaining.isEmpty()) {
+            return timeout;
+        }
+        long remainingMillis = remaining.get().toMillis();
+        if (remainingMillis <= 0) {
+            // 이미 마감 시각이 지났으면 커넥션을 잡기 전에 실패
+            throw new TransactionTimedOutException("Request deadline exceeded before transaction began");
+        }
+        int remainingSeconds = (int) Math.ceil(remainingMillis / 1000.0);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(timeout, remainingSeconds);
+    }
+}
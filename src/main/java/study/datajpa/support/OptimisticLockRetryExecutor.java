@@ -0,0 +1,86 @@
+package study.datajpa.support;
+
+import jakarta.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 낙관적 락(@Version) 충돌 시 트랜잭션을 처음부터 다시 실행해주는 실행기.
+ * <p>
+ * 재시도마다 새 트랜잭션(REQUIRES_NEW)에서 엔티티를 다시 조회해야 최신 version으로 갱신할 수 있으므로,
+ * 조회부터 수정까지를 전부 작업(callback) 안에 넣어야 한다.
+ * 재시도 간격은 지수 백오프 + full jitter(0 ~ 상한 사이 임의 값)를 사용해서 충돌한 스레드들이 동시에 다시 부딪히지 않게 한다.
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetryExecutor {
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public OptimisticLockRetryExecutor(
+            PlatformTransactionManager transactionManager,
+            @Value("${optimistic-lock.retry.max-attempts:5}") int maxAttempts,
+            @Value("${optimistic-lock.retry.initial-backoff:10ms}") Duration initialBackoff,
+            @Value("${optimistic-lock.retry.max-backoff:500ms}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        return execute(maxAttempts, work);
+    }
+
+    public <T> T execute(int attempts, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                // 커밋 시점 충돌은 스프링이 ObjectOptimisticLockingFailureException으로 변환해서 던지고,
+                // 작업 안에서 em.flush()를 직접 호출한 경우에는 JPA 예외가 그대로 올라온다.
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                log.debug("optimistic lock conflict. attempt={}/{}", attempt, attempts);
+                sleep(backoff(attempt));
+            }
+        }
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    long backoff(int attempt) {
+        long ceiling = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        ceiling = Math.min(ceiling, maxBackoff.toMillis());
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting to retry", e);
+        }
+    }
+}
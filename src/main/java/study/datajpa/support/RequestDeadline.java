@@ -0,0 +1,47 @@
+package study.datajpa.support;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 현재 스레드에서 처리 중인 요청의 마감 시각.
+ * DeadlineAwareJpaTransactionManager가 트랜잭션 timeout을 남은 시간으로 줄이는 데 사용한다.
+ * <p>
+ * 다른 스레드(비동기 실행, prefetch 등)로는 전파되지 않는다.
+ */
+public final class RequestDeadline {
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * 지금부터 timeout 이후를 마감 시각으로 설정한다. 이미 더 이른 마감 시각이 있으면 그대로 둔다.
+     * 반환된 Scope를 닫으면 이전 상태로 돌아간다. (try-with-resources)
+     */
+    public static Scope start(Duration timeout) {
+        Long previous = DEADLINE_NANOS.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        if (previous == null || deadline - previous < 0) {
+            DEADLINE_NANOS.set(deadline);
+        }
+        return () -> {
+            if (previous == null) {
+                DEADLINE_NANOS.remove();
+            } else {
+                DEADLINE_NANOS.set(previous);
+            }
+        };
+    }
+
+    // 마감 시각까지 남은 시간. 마감 시각이 없으면 empty, 지났으면 0 이하
+    public static Optional<Duration> remaining() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline == null ? Optional.empty() : Optional.of(Duration.ofNanos(deadline - System.nanoTime()));
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
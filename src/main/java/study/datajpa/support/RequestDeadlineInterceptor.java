@@ -0,0 +1,96 @@
+package study.datajpa.support;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * 요청마다 마감 시각(RequestDeadline)을 설정한다.
+ * 우선순위: @Deadline(메소드 > 클래스) > request-deadline.default
+ * 클라이언트가 X-Request-Timeout-Ms 헤더로 더 짧은 시간을 보내면 그 값을 사용한다. (request-deadline.max를 넘을 수 없음)
+ * 헤더 값이 숫자가 아니거나 0 이하이면 400으로 거절한다.
+ * <p>
+ * 비동기 요청(Flux 스트리밍 등)은 첫 dispatch가 끝날 때 afterCompletion이 호출되지 않으므로
+ * afterConcurrentHandlingStarted에서 닫는다. 닫지 않으면 마감 시각이 요청 스레드에 남아 다음 요청이 이전(지난) 마감 시각을 쓴다.
+ */
+@Component
+public class RequestDeadlineInterceptor implements AsyncHandlerInterceptor {
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+    // 이 요청에 적용된 timeout (Duration)
+    public static final String TIMEOUT_ATTRIBUTE = RequestDeadlineInterceptor.class.getName() + ".timeout";
+    private static final String SCOPE_ATTRIBUTE = RequestDeadlineInterceptor.class.getName() + ".scope";
+
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+
+    public RequestDeadlineInterceptor(@Value("${request-deadline.default:5s}") Duration defaultTimeout,
+                                      @Value("${request-deadline.max:30s}") Duration maxTimeout) {
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Duration timeout = defaultTimeout;
+        if (handler instanceof HandlerMethod handlerMethod) {
+            Deadline deadline = handlerMethod.getMethodAnnotation(Deadline.class);
+            if (deadline == null) {
+                deadline = handlerMethod.getBeanType().getAnnotation(Deadline.class);
+            }
+            if (deadline != null) {
+                timeout = Duration.ofMillis(deadline.millis());
+            }
+        }
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            Duration requested = parseTimeout(header);
+            if (requested.compareTo(timeout) < 0) {
+                timeout = requested;
+            }
+        }
+        if (timeout.compareTo(maxTimeout) > 0) {
+            timeout = maxTimeout;
+        }
+        request.setAttribute(TIMEOUT_ATTRIBUTE, timeout);
+        request.setAttribute(SCOPE_ATTRIBUTE, RequestDeadline.start(timeout));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        closeScope(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        closeScope(request);
+    }
+
+    private static Duration parseTimeout(String header) {
+        long millis;
+        try {
+            millis = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, TIMEOUT_HEADER + " must be a number");
+        }
+        if (millis <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, TIMEOUT_HEADER + " must be positive");
+        }
+        return Duration.ofMillis(millis);
+    }
+
+    private static void closeScope(HttpServletRequest request) {
+        if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof RequestDeadline.Scope scope) {
+            scope.close();
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.support;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+/**
+ * flush 모드가 COMMIT/MANUAL인 트랜잭션에서 flush 되지 않은 변경이 있는 테이블을 조회했을 때 발생.
+ */
+public class StaleFlushStateException extends InvalidDataAccessApiUsageException {
+
+    public StaleFlushStateException(String msg) {
+        super(msg);
+    }
+}
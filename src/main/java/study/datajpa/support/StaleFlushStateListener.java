@@ -0,0 +1,154 @@
+package study.datajpa.support;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * flush 모드가 COMMIT/MANUAL일 때, 쿼리가 flush 되지 않은 변경을 보지 못하는 경우를 찾는다.
+ * <p>
+ * 쿼리 실행 전 auto flush 이벤트는 flush 모드와 상관없이 발생하므로, 이때 쿼리 대상 테이블에
+ * 대기 중인 insert/delete나 변경된 엔티티가 있는지 확인한다. 변경 여부는 바이트코드 향상(dirtyTracking)의
+ * 변경 기록만 보므로 flush처럼 전체 필드를 비교하지 않는다. 판단은 테이블 단위라서 다른 row를 조회해도 잡힌다.
+ * <p>
+ * warn은 트랜잭션당 한 번만 로그를 남기고, 그 뒤의 쿼리에서는 영속성 컨텍스트를 확인하지 않는다.
+ * (변경한 테이블을 반복해서 조회하는 흐름에서 쿼리마다 로그가 남고 엔티티 전체를 훑지 않도록)
+ * fail은 매번 확인해서 예외를 던진다.
+ */
+@Slf4j
+@Component
+public class StaleFlushStateListener implements AutoFlushEventListener {
+
+    public enum Policy {
+        OFF, WARN, FAIL
+    }
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Policy policy;
+
+    public StaleFlushStateListener(EntityManagerFactory entityManagerFactory,
+                                   @Value("${transaction-flush-mode.stale-check:warn}") Policy policy) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.policy = policy;
+    }
+
+    @PostConstruct
+    void register() {
+        if (policy == Policy.OFF) {
+            return;
+        }
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.AUTO_FLUSH, this);
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        EventSource session = event.getSession();
+        FlushMode flushMode = session.getHibernateFlushMode();
+        if (!flushMode.lessThan(FlushMode.AUTO)) {
+            return;
+        }
+        if (policy == Policy.WARN && TransactionSynchronizationManager.hasResource(reportedKey(session))) {
+            return;
+        }
+        Set<String> querySpaces = event.getQuerySpaces();
+        String unflushed = findUnflushed(session, querySpaces);
+        if (unflushed == null) {
+            return;
+        }
+        String message = "Query on " + (querySpaces.isEmpty() ? "all tables" : querySpaces)
+                + " does not see unflushed changes of " + unflushed + " (flush mode " + flushMode + ")";
+        if (policy == Policy.FAIL) {
+            throw new StaleFlushStateException(message);
+        }
+        log.warn(message);
+        markReported(session);
+    }
+
+    // 트랜잭션이 끝날 때까지 같은 세션에서는 다시 확인하지 않음. (REQUIRES_NEW 등 다른 트랜잭션의 세션은 따로 확인)
+    private static void markReported(EventSource session) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        ReportedKey key = reportedKey(session);
+        TransactionSynchronizationManager.bindResource(key, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            }
+        });
+    }
+
+    private static ReportedKey reportedKey(EventSource session) {
+        return new ReportedKey(session.getSessionIdentifier());
+    }
+
+    // 트랜잭션 리소스 키 (세션 식별자)
+    private record ReportedKey(UUID sessionId) {
+    }
+
+    // querySpaces가 비어 있으면(동기화 대상이 지정되지 않은 네이티브 쿼리) 모든 테이블 대상
+    private static String findUnflushed(EventSource session, Set<String> querySpaces) {
+        if (querySpaces.isEmpty() ? session.getActionQueue().hasAnyQueuedActions()
+                : session.getActionQueue().areTablesToBeUpdated(querySpaces)) {
+            return "queued insert/update/delete";
+        }
+        for (Map.Entry<Object, EntityEntry> me : session.getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            EntityEntry entry = me.getValue();
+            if (entry.getStatus() != Status.MANAGED && entry.getStatus() != Status.DELETED) {
+                continue;
+            }
+            if (!touches(entry.getPersister(), querySpaces)) {
+                continue;
+            }
+            if (entry.getStatus() == Status.DELETED || isDirty(me.getKey(), entry, session)) {
+                return entry.getPersister().getEntityName() + "#" + entry.getId();
+            }
+        }
+        return null;
+    }
+
+    private static boolean touches(EntityPersister persister, Set<String> querySpaces) {
+        if (querySpaces.isEmpty()) {
+            return true;
+        }
+        for (Serializable space : persister.getQuerySpaces()) {
+            if (querySpaces.contains(space)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDirty(Object entity, EntityEntry entry, EventSource session) {
+        if (entity instanceof SelfDirtinessTracker tracker) {
+            return tracker.$$_hibernate_hasDirtyAttributes();
+        }
+        Object[] loadedState = entry.getLoadedState();
+        EntityPersister persister = entry.getPersister();
+        return loadedState != null
+                && persister.findDirty(persister.getValues(entity), loadedState, entity, session) != null;
+    }
+}
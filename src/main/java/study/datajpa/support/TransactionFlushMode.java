@@ -0,0 +1,26 @@
+package study.datajpa.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.hibernate.FlushMode;
+
+/**
+ * 트랜잭션의 Hibernate flush 모드 지정. @Transactional과 함께 사용한다. (TransactionFlushModeAspect)
+ * <ul>
+ *     <li>COMMIT: JPQL 실행 전 자동 flush(영속성 컨텍스트 전체 dirty check)를 하지 않고 커밋 시점에 한 번만 flush</li>
+ *     <li>MANUAL: 직접 flush() 할 때만 반영. 커밋 시점에도 flush 하지 않는다.</li>
+ * </ul>
+ * 메소드가 새 트랜잭션을 시작했으면 커밋까지 적용되고, 진행 중인 트랜잭션에 참여했으면 메소드 안에서만 적용된다.
+ * <p>
+ * 엔티티를 변경한 뒤 flush 전에 같은 테이블을 조회하면 변경이 반영되지 않은 결과를 보게 된다.
+ * StaleFlushStateListener가 이런 조회를 transaction-flush-mode.stale-check 설정에 따라 로그로 남기거나 실패시킨다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TransactionFlushMode {
+    FlushMode value() default FlushMode.COMMIT;
+}
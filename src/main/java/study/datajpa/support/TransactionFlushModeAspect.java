@@ -0,0 +1,79 @@
+package study.datajpa.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.lang.reflect.Method;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @TransactionFlushMode 처리.
+ * 트랜잭션이 시작된 다음에 실행되어야 하므로 트랜잭션 advice(TransactionConfig.TRANSACTION_ADVICE_ORDER)보다 안쪽에 둔다.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class TransactionFlushModeAspect {
+    @PersistenceContext
+    private EntityManager em;
+
+    @Around("@annotation(study.datajpa.support.TransactionFlushMode) || @within(study.datajpa.support.TransactionFlushMode)")
+    public Object applyFlushMode(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        TransactionFlushMode flushMode = findAnnotation(method, targetClass);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("@TransactionFlushMode requires an active transaction: " + method);
+        }
+
+        Session session = em.unwrap(Session.class);
+        FlushMode previous = session.getHibernateFlushMode();
+        session.setHibernateFlushMode(flushMode.value());
+
+        if (ownsTransaction(method, targetClass)) {
+            // 이 메소드가 시작한 트랜잭션이면 커밋 시점의 flush까지 지정한 모드로 처리.
+            // open-in-view 등으로 EntityManager가 트랜잭션 이후에도 남아 있으면 종료 후 되돌린다.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (session.isOpen()) {
+                        session.setHibernateFlushMode(previous);
+                    }
+                }
+            });
+            return joinPoint.proceed();
+        }
+
+        // 바깥 트랜잭션에 참여한 경우에는 메소드 안에서만 적용. 남은 변경은 바깥 트랜잭션의 flush 모드로 반영된다.
+        try {
+            return joinPoint.proceed();
+        } finally {
+            session.setHibernateFlushMode(previous);
+        }
+    }
+
+    private static TransactionFlushMode findAnnotation(Method method, Class<?> targetClass) {
+        TransactionFlushMode annotation = AnnotatedElementUtils.findMergedAnnotation(method, TransactionFlushMode.class);
+        return annotation != null ? annotation
+                : AnnotatedElementUtils.findMergedAnnotation(targetClass, TransactionFlushMode.class);
+    }
+
+    private static boolean ownsTransaction(Method method, Class<?> targetClass) {
+        boolean transactional = AnnotatedElementUtils.hasAnnotation(method, Transactional.class)
+                || AnnotatedElementUtils.hasAnnotation(targetClass, Transactional.class);
+        return transactional && TransactionAspectSupport.currentTransactionStatus().isNewTransaction();
+    }
+}
@@ -0,0 +1,336 @@
+package study.datajpa.writebehind;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.cache.MemberCache;
+import study.datajpa.entity.AuditColumns;
+import study.datajpa.entity.UsernameKey;
+import study.datajpa.outbox.OutboxEventType;
+import study.datajpa.outbox.OutboxRecorder;
+import study.datajpa.search.MemberSearchIndex;
+
+/**
+ * Member의 username, age 변경을 메모리에 모아두었다가 주기적으로 JDBC 배치 update로 반영한다. (write-behind)
+ * <p>
+ * 같은 회원의 변경은 하나로 합쳐진다. username은 마지막 값, age는 증가량의 합.
+ * 따라서 같은 회원을 자주 수정하는 경우 트랜잭션마다 나가던 update가 flush 주기마다 한 번으로 줄어든다.
+ * <p>
+ * 대신 flush 전까지는 DB와 MemberCache에 반영되지 않는다. (최대 flush-interval 만큼 늦음)
+ * - 메모리: 대기 중인 회원 수가 max-entries에 도달하면 변경을 요청한 스레드에서 바로 flush.
+ *   flush가 실패해서 가득 찬 상태로 남아 있으면 새 회원의 변경은 버퍼에 넣지 않고 RejectedExecutionException으로 거절한다.
+ *   (이미 대기 중인 회원의 변경은 합쳐지므로 받음. 동시에 들어온 변경만큼 max-entries를 조금 넘을 수 있음)
+ * - 종료: 빈 소멸 시점(@PreDestroy)에 새 변경을 거절하고, 남은 변경을 shutdown-timeout 동안 재시도하며 flush.
+ *   그래도 반영하지 못한 변경은 회원별로 error 로그를 남긴다.
+ * - 실패: DB 연결 실패 등 일시적인 오류면 배치 전체를 다시 버퍼에 합쳐서 다음 주기에 재시도.
+ *   그 외 오류는 한 건씩 다시 써서, 계속 실패하는 row만 로그를 남기고 버린다. (failedCount)
+ * - 삭제된 회원: update된 row가 없으면 버리고 outbox 이벤트도 기록하지 않는다.
+ * update 시 version을 올리므로, 같은 회원을 JPA로 수정 중인 트랜잭션은 낙관적 락 예외로 충돌을 감지한다.
+ * <p>
+ * 사용하려면 member-write-behind.enabled=true
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member-write-behind.enabled", havingValue = "true")
+public class MemberWriteBehindBuffer {
+    private static final long SHUTDOWN_INITIAL_BACKOFF_MILLIS = 100;
+    private static final long SHUTDOWN_MAX_BACKOFF_MILLIS = 2000;
+    // username을 바꾸면 검색 컬럼(username_key, username_hash)도 함께 갱신 (엔티티 리스너를 거치지 않으므로)
+    private static final String UPDATE_SQL = "update member set username = coalesce(?, username),"
+            + " username_key = coalesce(?, username_key), username_hash = coalesce(?, username_hash), age = age + ?,"
+            + " version = version + 1, last_modified_date = ?, last_modified_by = ? where member_id = ?";
+
+    private final Map<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicLong failed = new AtomicLong();
+    // 종료 중에는 새 변경을 받지 않는다. 종료 직전에 버퍼에 넣는 중인 변경이 마지막 flush에서 빠지지 않도록 write lock으로 기다림
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxRecorder outboxRecorder;
+    private final MemberCache memberCache;
+    private final MemberSearchIndex searchIndex;
+    private final AuditorAware<UUID> auditorAware;
+    private final int maxEntries;
+    private final Duration shutdownTimeout;
+
+    public MemberWriteBehindBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   OutboxRecorder outboxRecorder, MemberCache memberCache,
+                                   MemberSearchIndex searchIndex, AuditorAware<UUID> auditorAware,
+                                   @Value("${member-write-behind.max-entries:10000}") int maxEntries,
+                                   @Value("${member-write-behind.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        // 호출한 쪽 트랜잭션과 상관없이 독립적으로 커밋
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.outboxRecorder = outboxRecorder;
+        this.memberCache = memberCache;
+        this.searchIndex = searchIndex;
+        this.auditorAware = auditorAware;
+        this.maxEntries = maxEntries;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public void changeUsername(Long memberId, String username) {
+        enqueue(memberId, new PendingUpdate(username, 0));
+    }
+
+    public void increaseAge(Long memberId) {
+        addAge(memberId, 1);
+    }
+
+    public void addAge(Long memberId, int delta) {
+        enqueue(memberId, new PendingUpdate(null, delta));
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    // 반영하지 못하고 버린 변경 수
+    public long failedCount() {
+        return failed.get();
+    }
+
+    private void enqueue(Long memberId, PendingUpdate update) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("member write-behind buffer is shut down");
+            }
+            if (pending.size() >= maxEntries && !pending.containsKey(memberId)) {
+                // 이전 flush가 실패해서 가득 찬 상태. 한 번 더 비워보고 그래도 가득 차 있으면 거절
+                tryFlush();
+                if (pending.size() >= maxEntries) {
+                    throw new RejectedExecutionException("member write-behind buffer is full (" + maxEntries + ")");
+                }
+            }
+            pending.merge(memberId, update, PendingUpdate::then);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        if (pending.size() >= maxEntries) {
+            // 변경은 이미 버퍼에 들어갔으므로 flush 실패를 호출한 쪽에 던지지 않음
+            tryFlush();
+        }
+    }
+
+    private void tryFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("member write-behind flush failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${member-write-behind.flush-interval:500}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // 변경은 버퍼에 남아 있으므로 다음 주기에 다시 시도
+            log.warn("member write-behind flush failed", e);
+        }
+    }
+
+    /**
+     * 대기 중인 변경을 한 트랜잭션에서 배치 update 한다.
+     * 일시적인 오류로 실패하면 변경을 버퍼에 되돌리고 예외를 던진다.
+     *
+     * @return 반영한 회원 수
+     */
+    public synchronized int flush() {
+        Map<Long, PendingUpdate> batch = drain();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<Long> written;
+        try {
+            written = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            if (isRetryable(e)) {
+                requeue(batch);
+                throw e;
+            }
+            // 배치 안의 특정 row 때문에 실패. 한 건씩 다시 써서 실패하는 row만 격리
+            written = writeOneByOne(batch);
+        }
+        batch.keySet().forEach(memberCache::evict);
+        // JDBC update는 엔티티 리스너(MemberSearchIndexListener)를 거치지 않으므로 직접 색인
+        for (Long id : written) {
+            String username = batch.get(id).username();
+            if (username != null) {
+                searchIndex.index(id, username);
+            }
+        }
+        return written.size();
+    }
+
+    /**
+     * 새 변경을 거절한 뒤, 버퍼가 빌 때까지 shutdown-timeout 동안 간격을 늘려가며 flush를 재시도한다.
+     * 그래도 남은 변경은 회원별로 error 로그를 남긴다. (메모리에만 있으므로 로그가 유일한 기록)
+     */
+    @PreDestroy
+    public void shutdown() {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        long backoffMillis = SHUTDOWN_INITIAL_BACKOFF_MILLIS;
+        while (!pending.isEmpty()) {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("member write-behind flush failed during shutdown. {} updates pending", pending.size(), e);
+            }
+            // 한 건씩 다시 쓰는 도중 연결이 끊기면 예외 없이 다시 버퍼에 들어가므로 남은 건수로 판단
+            if (pending.isEmpty()) {
+                break;
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                break;
+            }
+            try {
+                Thread.sleep(Math.min(backoffMillis, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, SHUTDOWN_MAX_BACKOFF_MILLIS);
+        }
+        if (!pending.isEmpty()) {
+            log.error("member write-behind shut down with {} unwritten updates", pending.size());
+            pending.forEach((id, update) -> log.error("unwritten write-behind update of member {}: {}", id, update));
+        }
+    }
+
+    // 키 단위로 꺼내므로 꺼내는 도중에 들어온 변경은 다음 flush에 반영된다.
+    private Map<Long, PendingUpdate> drain() {
+        Map<Long, PendingUpdate> batch = new LinkedHashMap<>();
+        for (Long id : pending.keySet()) {
+            PendingUpdate update = pending.remove(id);
+            if (update != null) {
+                batch.put(id, update);
+            }
+        }
+        return batch;
+    }
+
+    private Set<Long> writeOneByOne(Map<Long, PendingUpdate> batch) {
+        Set<Long> written = new LinkedHashSet<>();
+        List<Map.Entry<Long, PendingUpdate>> entries = new ArrayList<>(batch.entrySet());
+        for (int i = 0; i < entries.size(); i++) {
+            Map<Long, PendingUpdate> single = Map.of(entries.get(i).getKey(), entries.get(i).getValue());
+            try {
+                written.addAll(transactionTemplate.execute(status -> write(single)));
+            } catch (RuntimeException e) {
+                if (isRetryable(e)) {
+                    // 도중에 DB 연결이 끊긴 경우 남은 변경은 다음 주기에 재시도
+                    Map<Long, PendingUpdate> remaining = new LinkedHashMap<>();
+                    entries.subList(i, entries.size()).forEach(entry -> remaining.put(entry.getKey(), entry.getValue()));
+                    requeue(remaining);
+                    log.warn("member write-behind flush interrupted. {} updates requeued", remaining.size(), e);
+                    break;
+                }
+                failed.incrementAndGet();
+                log.error("dropping write-behind update of member {}: {}", entries.get(i).getKey(),
+                        entries.get(i).getValue(), e);
+            }
+        }
+        return written;
+    }
+
+    // 실패한 변경(이전 값)을 그 사이에 들어온 변경(이후 값) 앞에 다시 합친다.
+    private void requeue(Map<Long, PendingUpdate> batch) {
+        batch.forEach((id, failedUpdate) -> pending.merge(id, failedUpdate, (newer, older) -> older.then(newer)));
+    }
+
+    // 다시 시도하면 성공할 수 있는 오류 (연결 실패, 락 timeout 등)
+    private static boolean isRetryable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    /**
+     * @return update된 회원 id. 삭제되어 update된 row가 없는 회원은 제외
+     */
+    private Set<Long> write(Map<Long, PendingUpdate> batch) {
+        Instant now = Instant.now();
+        UUID auditor = auditorAware.getCurrentAuditor().orElse(null);
+        List<Map.Entry<Long, PendingUpdate>> entries = new ArrayList<>(batch.entrySet());
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PendingUpdate update = entries.get(i).getValue();
+                ps.setString(1, update.username());
+                ps.setString(2, UsernameKey.normalize(update.username()));
+                ps.setObject(3, UsernameKey.hash(update.username()), Types.INTEGER);
+                ps.setInt(4, update.ageDelta());
+                AuditColumns.setInstant(ps, 5, now);
+                AuditColumns.setAuditor(ps, 6, auditor);
+                ps.setLong(7, entries.get(i).getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+        Set<Long> updated = new LinkedHashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            // 드라이버가 건수를 알려주지 않는 경우(SUCCESS_NO_INFO)는 반영된 것으로 본다.
+            if (counts[i] != 0) {
+                updated.add(entries.get(i).getKey());
+            }
+        }
+        updated.forEach(id -> outboxRecorder.record("Member", id, OutboxEventType.UPDATED));
+        return updated;
+    }
+
+    /**
+     * @param username null이면 변경 없음
+     * @param ageDelta 나이 증가량
+     */
+    record PendingUpdate(String username, int ageDelta) {
+        PendingUpdate then(PendingUpdate next) {
+            return new PendingUpdate(next.username != null ? next.username : username, ageDelta + next.ageDelta);
+        }
+    }
+}
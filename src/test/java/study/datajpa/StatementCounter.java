@@ -0,0 +1,32 @@
+package study.datajpa;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 현재 스레드에서 하이버네이트가 실행한 SQL 수를 센다. (application-test.yml의 statement_inspector)
+ * SessionFactory 전체 통계(Statistics)와 달리 스케줄러(OutboxRelay 등) 등 다른 스레드의 쿼리는 세지 않는다.
+ * MockMvc는 요청을 테스트 스레드에서 처리하므로 요청 하나의 쿼리 수를 확인할 수 있다.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    // start 이후 실행된 SQL 수를 반환하고 세기를 멈춘다.
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
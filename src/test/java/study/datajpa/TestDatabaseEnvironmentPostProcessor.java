@@ -0,0 +1,25 @@
+package study.datajpa;
+
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * 테스트 컨텍스트마다 인메모리 DB 이름(test-db.name)을 한 번만 만든다.
+ * ${random.uuid}는 참조할 때마다 새 값이 나오므로, JPA(JDBC)와 R2DBC가 같은 DB를 쓰도록 이름을 고정한다.
+ * (src/test/resources/META-INF/spring.factories에 등록)
+ */
+public class TestDatabaseEnvironmentPostProcessor implements EnvironmentPostProcessor {
+    static final String PROPERTY = "test-db.name";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.containsProperty(PROPERTY)) {
+            environment.getPropertySources().addLast(new MapPropertySource("testDatabase",
+                    Map.of(PROPERTY, "datajpa-" + UUID.randomUUID())));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package study.datajpa;
+
+/**
+ * 병렬 테스트 실행 시 공유 자원 이름 (@ResourceLock)
+ */
+public final class TestResources {
+    // 기본 테스트 컨텍스트가 공유하는 인메모리 DB
+    public static final String DATABASE = "database";
+
+    private TestResources() {
+    }
+}
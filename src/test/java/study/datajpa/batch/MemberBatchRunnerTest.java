@@ -0,0 +1,80 @@
+package study.datajpa.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+// 청크마다 커밋되는 동작을 확인해야 하므로 @Transactional(롤백)을 사용하지 않는다.
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+class MemberBatchRunnerTest {
+    static final int MEMBER_COUNT = 50;
+
+    @Autowired
+    MemberBatchRunner batchRunner;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    BatchCheckpointRepository checkpointRepository;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        checkpointRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void processAllMembers() {
+        //given
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+
+        //when
+        long processed = batchRunner.run(new MemberBatchJob("age-plus", 4, 7,
+                chunk -> chunk.forEach(Member::increaseAge)));
+
+        //then
+        assertThat(processed).isEqualTo(MEMBER_COUNT);
+        assertThat(memberRepository.findAll()).allMatch(member -> member.getAge() == 11);
+        // 이미 완료된 작업은 다시 실행해도 처리하지 않음
+        assertThat(batchRunner.run(new MemberBatchJob("age-plus", 4, 7,
+                chunk -> chunk.forEach(Member::increaseAge)))).isZero();
+    }
+
+    @Test
+    public void resumeAfterFailure() {
+        //given
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+        AtomicBoolean fail = new AtomicBoolean(true);
+        MemberChunkProcessor processor = chunk -> {
+            chunk.forEach(Member::increaseAge);
+            if (fail.get() && chunk.stream().anyMatch(member -> member.getUsername().equals("member30"))) {
+                throw new IllegalStateException("crash");
+            }
+        };
+
+        //when
+        assertThatThrownBy(() -> batchRunner.run(new MemberBatchJob("resume", 2, 5, processor)))
+                .isInstanceOf(IllegalStateException.class);
+        fail.set(false);
+        batchRunner.run(new MemberBatchJob("resume", 2, 5, processor));
+
+        //then
+        // 실패한 청크는 롤백되었으므로 모든 Member가 정확히 한 번씩만 처리됨
+        assertThat(memberRepository.findAll()).allMatch(member -> member.getAge() == 11);
+    }
+}
@@ -0,0 +1,195 @@
+package study.datajpa.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.List;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+// 캐시 무효화는 커밋 이후 동작을 확인해야 하므로 @Transactional(롤백)을 사용하지 않는다.
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+class MemberCacheTest {
+    @Autowired
+    MemberCache memberCache;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        memberCache.evictAll();
+    }
+
+    @Test
+    public void cacheHit() {
+        //given
+        Long id = memberRepository.save(new Member("member1", 10)).getId();
+        CacheStats before = stats();
+
+        //when
+        Member first = memberCache.findById(id).get();
+        Member second = memberCache.findById(id).get();
+
+        //then
+        assertThat(second).isSameAs(first);
+        CacheStats stats = stats().minus(before);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void evictOnUpdate() {
+        //given
+        Long id = memberRepository.save(new Member("member1", 10)).getId();
+        memberCache.findById(id);
+
+        //when
+        // 변경 감지로 update -> 엔티티 리스너가 캐시에서 제거
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.findById(id).get().changeUsername("member2"));
+
+        //then
+        assertThat(memberCache.findById(id).get().getUsername()).isEqualTo("member2");
+    }
+
+    @Test
+    public void evictOnBulkUpdate() {
+        //given
+        Long id = memberRepository.save(new Member("member1", 10)).getId();
+        memberCache.findById(id);
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.bulkAgePlus(10));
+
+        //then
+        assertThat(memberCache.findById(id).get().getAge()).isEqualTo(11);
+    }
+
+    @Test
+    public void evictOnBulkDelete() {
+        //given
+        Long id1 = memberRepository.save(new Member("member1", 10)).getId();
+        Long id2 = memberRepository.save(new Member("member2", 20)).getId();
+        memberCache.findById(id1);
+        memberCache.findById(id2);
+
+        //when
+        memberRepository.deleteAllByIdInBatch(List.of(id1));
+
+        //then
+        assertThat(memberCache.findById(id1)).isEmpty();
+
+        //when
+        memberCache.findById(id2);
+        memberRepository.deleteAllInBatch();
+
+        //then
+        assertThat(memberCache.findById(id2)).isEmpty();
+    }
+
+    @Test
+    public void evictAgainAfterBulkCommit() {
+        //given
+        Long id = memberRepository.save(new Member("member1", 10)).getId();
+        Long removedId = memberRepository.save(new Member("member2", 10)).getId();
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.bulkAgePlus(10);
+            memberRepository.deleteAllByIdInBatch(List.of(removedId));
+            // 커밋 전에 다른 요청이 이전 값을 다시 캐시에 올림 (MemberCache는 REQUIRES_NEW로 조회)
+            assertThat(memberCache.findById(id).get().getAge()).isEqualTo(10);
+            assertThat(memberCache.findById(removedId)).isPresent();
+        });
+
+        //then
+        // 트랜잭션이 끝난 뒤 한 번 더 비웠으므로 커밋된 값
+        assertThat(memberCache.findById(id).get().getAge()).isEqualTo(11);
+        assertThat(memberCache.findById(removedId)).isEmpty();
+    }
+
+    @Test
+    public void findAllByIdWithFetchPlan() {
+        //given
+        Team team = teamRepository.save(new Team("teamA"));
+        Long id1 = memberRepository.save(new Member("member1", 10, team)).getId();
+        Long id2 = memberRepository.save(new Member("member2", 20, team)).getId();
+        memberCache.findById(id2);
+        CacheStats before = stats();
+
+        //when
+        // id2는 캐시에서, id1만 in 쿼리로 조회. 없는 id(-1)는 제외
+        List<Member> members = memberCache.findAllById(List.of(id2, -1L, id1));
+
+        //then
+        assertThat(members).extracting(Member::getUsername).containsExactly("member2", "member1");
+        // member-cache.fetch-plan(team)으로 함께 조회했으므로 준영속 상태에서도 team 사용 가능
+        assertThat(members).allMatch(member -> Hibernate.isInitialized(member.getTeam()));
+        assertThat(memberCache.findById(id1).get()).isSameAs(members.get(1));
+        assertThat(stats().minus(before).hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void evictOnTeamUpdate() {
+        //given
+        Team team = teamRepository.save(new Team("teamA"));
+        Long id = memberRepository.save(new Member("member1", 10, team)).getId();
+        memberCache.findById(id);
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                teamRepository.findById(team.getId()).get().changeName("teamB"));
+
+        //then
+        assertThat(memberCache.findById(id).get().getTeam().getName()).isEqualTo("teamB");
+    }
+
+    @Test
+    public void evictOnTeamBulkDelete() {
+        //given
+        Team team = teamRepository.save(new Team("teamA"));
+        Long id = memberRepository.save(new Member("member1", 10)).getId();
+        memberCache.findById(id);
+        CacheStats before = stats();
+
+        //when
+        teamRepository.deleteAllInBatch(List.of(team));
+        memberCache.findById(id);
+
+        //then
+        // 팀 벌크 삭제는 엔티티 리스너를 거치지 않지만 캐시를 비우므로 다시 조회
+        assertThat(stats().minus(before).missCount()).isEqualTo(1);
+    }
+
+    private CacheStats stats() {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(MemberCache.CACHE_NAME);
+        return cache.getNativeCache().stats();
+    }
+}
@@ -0,0 +1,97 @@
+package study.datajpa.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import study.datajpa.StatementCounter;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+// 커밋하므로 READ_WRITE. SQL 수는 요청을 처리한 테스트 스레드에서 실행된 것만 센다. (StatementCounter)
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberConverterTest {
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberCache memberCache;
+
+    @AfterEach
+    void cleanUp() {
+        StatementCounter.stop();
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        memberCache.evictAll();
+    }
+
+    @Test
+    public void batchConverter() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("teamA"));
+        Long id1 = memberRepository.save(new Member("member1", 10, team)).getId();
+        Long id2 = memberRepository.save(new Member("member2", 20)).getId();
+        Long id3 = memberRepository.save(new Member("member3", 30, team)).getId();
+        memberCache.evictAll();
+
+        //when, then
+        // 요청한 id 순서 유지, 없는 id(-1)는 제외. in 쿼리 한 번
+        StatementCounter.start();
+        mockMvc.perform(get("/members2").param("ids", id3 + "," + id1 + ",-1," + id2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0]").value("member3"))
+                .andExpect(jsonPath("$[1]").value("member1"))
+                .andExpect(jsonPath("$[2]").value("member2"));
+        assertThat(StatementCounter.stop()).isEqualTo(1);
+
+        // ?ids=1&ids=2 형식도 같은 컨버터. 모두 캐시에 있으므로 조회하지 않음
+        StatementCounter.start();
+        mockMvc.perform(get("/members2").param("ids", id2.toString()).param("ids", id1.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("member2"))
+                .andExpect(jsonPath("$[1]").value("member1"));
+        assertThat(StatementCounter.stop()).isZero();
+    }
+
+    @Test
+    public void dtoConverter() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("teamA"));
+        Long id = memberRepository.save(new Member("member1", 10, team)).getId();
+
+        //when, then
+        // team 이름까지 쿼리 한 번
+        StatementCounter.start();
+        mockMvc.perform(get("/members3/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.username").value("member1"))
+                .andExpect(jsonPath("$.teamName").value("teamA"));
+        assertThat(StatementCounter.stop()).isEqualTo(1);
+
+        // 없는 id는 null로 변환되어 400
+        mockMvc.perform(get("/members3/{id}", -1))
+                .andExpect(status().isBadRequest());
+    }
+}
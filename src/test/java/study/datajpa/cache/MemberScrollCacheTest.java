@@ -0,0 +1,57 @@
+package study.datajpa.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.TestResources;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.ScrollResponse;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+// prefetch는 다른 스레드에서 조회하므로 커밋된 데이터가 필요. @Transactional(롤백)을 사용하지 않는다.
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+class MemberScrollCacheTest {
+    @Autowired
+    MemberScrollCache memberScrollCache;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void scrollToEnd() {
+        //given
+        for (int i = 1; i <= 7; i++) {
+            memberRepository.save(new Member("member" + i, i));
+        }
+
+        //when
+        List<String> usernames = new ArrayList<>();
+        ScrollResponse<MemberDto> window = memberScrollCache.scroll("client1", 0, 3);
+        int windows = 1;
+        window.content().forEach(dto -> usernames.add(dto.username()));
+        while (window.hasNext()) {
+            window = memberScrollCache.scroll("client1", window.nextCursor(), 3);
+            window.content().forEach(dto -> usernames.add(dto.username()));
+            windows++;
+        }
+
+        //then
+        assertThat(windows).isEqualTo(3);
+        assertThat(usernames).containsExactly("member1", "member2", "member3", "member4", "member5", "member6",
+                "member7");
+        assertThat(window.nextCursor()).isNull();
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
+import study.datajpa.dto.MemberDto;
+
+/**
+ * /members 한 페이지를 포맷별로 직렬화했을 때의 크기(bytes)와 CPU 시간 비교.
+ * 스프링 컨텍스트 없이 Jackson만 사용한다.
+ * ./gradlew benchmark 로 실행
+ */
+@Tag("benchmark")
+class MemberPageEncodingBenchmarkTest {
+    static final int PAGE_SIZE = 100;
+    static final int ROUNDS = 5_000;
+
+    @Test
+    public void bytesAndCpuPerPage() throws IOException {
+        List<MemberDto> content = new ArrayList<>();
+        for (long i = 0; i < PAGE_SIZE; i++) {
+            content.add(new MemberDto(i, "member" + i, "team" + (i % 10)));
+        }
+        Page<MemberDto> page = new PageImpl<>(content, PageRequest.of(3, PAGE_SIZE, Sort.by("username")), 10_000);
+        PagedModel<MemberDto> pagedModel = new PagedModel<>(page);
+
+        ObjectMapper json = new ObjectMapper();
+        report("json (PageImpl)", json, page);
+        report("json (PagedModel)", json, pagedModel);
+        report("cbor (PagedModel)", new CBORMapper(), pagedModel);
+        report("smile (PagedModel)", new SmileMapper(), pagedModel);
+    }
+
+    private void report(String name, ObjectMapper mapper, Object value) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(value);
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.writeValueAsBytes(value);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.writeValueAsBytes(value);
+        }
+        long encodeNanos = (System.nanoTime() - start) / ROUNDS;
+
+        start = System.nanoTime();
+        int gzipSize = 0;
+        for (int i = 0; i < ROUNDS / 10; i++) {
+            gzipSize = gzip(bytes).length;
+        }
+        long gzipNanos = (System.nanoTime() - start) / (ROUNDS / 10);
+
+        System.out.printf("%-20s: %,6d bytes (gzip %,6d bytes), encode %,8d ns, gzip %,8d ns%n",
+                name, bytes.length, gzipSize, encodeNanos, gzipNanos);
+    }
+
+    private byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 영속성 컨텍스트에 엔티티 1만 개가 있을 때 몇 개만 변경하고 flush 하는 비용 측정.
+ * 바이트코드 향상(dirtyTracking)이 적용되면 스냅샷 비교 대신 변경 기록만 확인한다.
+ * 향상 빌드와 기준값(스냅샷 비교)을 각각 실행해서 비교한다. 출력의 enhanced로 어느 빌드인지 확인
+ * ./gradlew benchmark --tests '*FlushCostBenchmarkTest'
+ * ./gradlew benchmark --tests '*FlushCostBenchmarkTest' -PdirtyTracking=false
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class FlushCostBenchmarkTest {
+    static final int ENTITIES = 10_000;
+    static final int CHANGED = 10;
+    static final int ROUNDS = 20;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void flushWithManyManagedEntities() {
+        Team team = new Team("teamA");
+        em.persist(team);
+        for (int i = 0; i < ENTITIES; i++) {
+            em.persist(new Member("member" + i, i % 100, team));
+        }
+        em.flush();
+        em.clear();
+
+        List<Member> members = em.createQuery("select m from Member m join fetch m.team", Member.class)
+                .getResultList();
+        boolean enhanced = members.get(0) instanceof SelfDirtinessTracker;
+
+        long total = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < CHANGED; i++) {
+                members.get((round * CHANGED + i) % members.size()).changeUsername("changed" + round + "_" + i);
+            }
+            long start = System.nanoTime();
+            em.flush();
+            total += System.nanoTime() - start;
+        }
+
+        System.out.printf("enhanced=%s, managed=%d, changed per flush=%d, avg flush=%.2f ms%n",
+                enhanced, members.size(), CHANGED, total / 1e6 / ROUNDS);
+    }
+}
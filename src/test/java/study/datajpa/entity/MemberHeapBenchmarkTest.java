@@ -0,0 +1,146 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * 회원 N명(기본 1,000,000, -Dbenchmark.members로 변경)을 메모리에 올렸을 때 row당 유지되는 힙 크기(bytes/row).
+ * - audit 필드: 이전 형태(String UUID 2개 + LocalDateTime 2개)와 현재 형태(UUID 2개 + Instant 2개)
+ * - Member 엔티티 (읽기 전용 조회), MemberDto (record + 조회 단위로 팀 이름 공유)
+ * ./gradlew benchmark --tests '*MemberHeapBenchmarkTest' 로 실행
+ */
+@Tag("benchmark")
+@SpringBootTest
+class MemberHeapBenchmarkTest {
+    static final int MEMBERS = Integer.getInteger("benchmark.members", 1_000_000);
+    static final int TEAMS = 100;
+    static final int INSERT_BATCH = 10_000;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void heapPerMember() {
+        report("audit fields (String UUID + LocalDateTime)", () -> {
+            Object[][] rows = new Object[MEMBERS][];
+            for (int i = 0; i < MEMBERS; i++) {
+                rows[i] = new Object[]{UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                        LocalDateTime.now(), LocalDateTime.now()};
+            }
+            return rows;
+        });
+        report("audit fields (UUID + Instant)             ", () -> {
+            Object[][] rows = new Object[MEMBERS][];
+            for (int i = 0; i < MEMBERS; i++) {
+                rows[i] = new Object[]{UUID.randomUUID(), UUID.randomUUID(), Instant.now(), Instant.now()};
+            }
+            return rows;
+        });
+
+        seed();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        // 영속성 컨텍스트(1차 캐시)까지 포함한 크기. 읽기 전용이므로 스냅샷은 없음
+        transactionTemplate.executeWithoutResult(status -> report("Member entity (read-only)                 ",
+                () -> em.createQuery("select m from Member m", Member.class)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultList()));
+        report("MemberDto record                          ", () -> memberRepository.findMemberDto());
+    }
+
+    private void seed() {
+        List<Long> teamIds = teamRepository.saveAll(
+                IntStream.range(0, TEAMS).mapToObj(i -> new Team("team" + i)).toList())
+                .stream().map(Team::getId).toList();
+        UUID auditor = UUID.randomUUID();
+        Instant now = Instant.now();
+        // 엔티티를 하나씩 저장하면 시간이 오래 걸리므로 JDBC 배치로 적재. id는 시퀀스와 겹치지 않도록 음수 사용
+        for (int from = 0; from < MEMBERS; from += INSERT_BATCH) {
+            int start = from;
+            int size = Math.min(INSERT_BATCH, MEMBERS - from);
+            jdbcTemplate.batchUpdate("insert into member (member_id, username, username_key, username_hash, age,"
+                    + " team_id, version, created_date, last_modified_date, created_by, last_modified_by)"
+                    + " values (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?)", new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int n = start + i;
+                    String username = "member" + n;
+                    ps.setLong(1, -(n + 1L));
+                    ps.setString(2, username);
+                    ps.setString(3, UsernameKey.normalize(username));
+                    ps.setInt(4, UsernameKey.hash(username));
+                    ps.setInt(5, n % 100);
+                    ps.setLong(6, teamIds.get(n % TEAMS));
+                    AuditColumns.setInstant(ps, 7, now);
+                    AuditColumns.setInstant(ps, 8, now);
+                    AuditColumns.setAuditor(ps, 9, auditor);
+                    AuditColumns.setAuditor(ps, 10, auditor);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    private void report(String name, Supplier<Object> loader) {
+        long before = usedHeapAfterGc();
+        Object loaded = loader.get();
+        long after = usedHeapAfterGc();
+        System.out.printf("%s : %,d bytes/row (%,d MB for %,d rows)%n",
+                name, (after - before) / MEMBERS, (after - before) >> 20, MEMBERS);
+        Reference.reachabilityFence(loaded);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -4,11 +4,15 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.TestResources;
 import study.datajpa.repository.MemberRepository;
 
+@ResourceLock(value = TestResources.DATABASE, mode = ResourceAccessMode.READ)
 @SpringBootTest
 @Transactional
 //@Rollback(false)
@@ -0,0 +1,88 @@
+package study.datajpa.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+// relay는 커밋된 이벤트만 볼 수 있으므로 @Transactional(롤백)을 사용하지 않는다.
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+class OutboxTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+        outboxSink.clear();
+    }
+
+    @Test
+    public void recordAndRelay() throws Exception {
+        //given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Team team = teamRepository.save(new Team("teamA"));
+        Member member = memberRepository.save(new Member("member1", 10, team));
+        transactionTemplate.executeWithoutResult(status ->
+                memberRepository.findById(member.getId()).get().changeUsername("member2"));
+        transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus(10));
+
+        //when
+        outboxRelay.relay();
+
+        //then
+        List<OutboxEvent> memberEvents = outboxSink.getReceived().stream()
+                .filter(event -> event.getAggregateType().equals("Member"))
+                .filter(event -> event.getAggregateId().equals(member.getId()))
+                .toList();
+        assertThat(memberEvents).extracting(OutboxEvent::getEventType)
+                .containsExactly(OutboxEventType.CREATED, OutboxEventType.UPDATED, OutboxEventType.UPDATED);
+        assertThat(outboxSink.getReceived())
+                .anyMatch(event -> event.getAggregateType().equals("Team") && event.getAggregateId().equals(team.getId()));
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    public void rollbackDiscardsEvents() {
+        //given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        //when
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(new Member("member1", 10));
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+}
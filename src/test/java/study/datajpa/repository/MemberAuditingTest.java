@@ -0,0 +1,81 @@
+package study.datajpa.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+
+// 수정자를 테스트에서 지정하기 위해 AuditorAware를 바꾸므로 별도 컨텍스트를 사용한다.
+// (MemberRepositoryTest 등 다른 테스트는 애플리케이션의 AuditorAware 그대로 사용)
+@ResourceLock(value = TestResources.DATABASE, mode = ResourceAccessMode.READ)
+@SpringBootTest
+@Transactional
+class MemberAuditingTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    FixedAuditor auditor;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void bulkUpdateRefreshesAuditColumns() {
+        //given
+        UUID creator = UUID.randomUUID();
+        UUID modifier = UUID.randomUUID();
+        auditor.set(creator);
+        Member member = memberRepository.save(new Member("member1", 30));
+        em.flush();
+        Instant beforeDate = member.getLastModifiedDate();
+
+        //when
+        auditor.set(modifier);
+        memberRepository.bulkAgePlus(20);
+
+        //then
+        Member updated = memberRepository.findById(member.getId()).get();
+        assertThat(updated.getAge()).isEqualTo(31);
+        assertThat(updated.getLastModifiedDate()).isAfterOrEqualTo(beforeDate);
+        assertThat(updated.getCreatedBy()).isEqualTo(creator);
+        assertThat(updated.getLastModifiedBy()).isEqualTo(modifier);
+    }
+
+    static class FixedAuditor implements AuditorAware<UUID> {
+        private volatile UUID current = UUID.randomUUID();
+
+        void set(UUID auditor) {
+            this.current = auditor;
+        }
+
+        @Override
+        public Optional<UUID> getCurrentAuditor() {
+            return Optional.of(current);
+        }
+    }
+
+    @TestConfiguration
+    static class FixedAuditorConfig {
+        @Bean
+        @Primary
+        FixedAuditor fixedAuditor() {
+            return new FixedAuditor();
+        }
+    }
+}
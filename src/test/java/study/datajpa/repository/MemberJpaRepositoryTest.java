@@ -4,11 +4,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.TestResources;
 import study.datajpa.entity.Member;
 
+@ResourceLock(value = TestResources.DATABASE, mode = ResourceAccessMode.READ)
 @SpringBootTest
 @Transactional
 class MemberJpaRepositoryTest {
@@ -0,0 +1,116 @@
+package study.datajpa.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.test.StepVerifier;
+import study.datajpa.TestResources;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+// R2DBC는 별도 커넥션으로 조회하므로 JPA로 저장한 데이터를 커밋해야 보인다. (@Transactional 사용 안 함)
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+class MemberReactiveRepositoryTest {
+    @Autowired
+    MemberReactiveRepository memberReactiveRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void findMemberDto() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Member member1 = memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20));
+
+        //when, then
+        // inner join이므로 팀이 없는 회원은 제외
+        StepVerifier.create(memberReactiveRepository.findMemberDto())
+                .expectNext(new MemberDto(member1.getId(), "member1", "teamA"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void findByNativeProjection() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("member" + i, 10, i % 2 == 0 ? teamA : null));
+        }
+
+        //when, then
+        // member_id 순서로 두 번째 페이지(member2, member3). 구독자가 요청한 만큼만 받는다.
+        StepVerifier.create(memberReactiveRepository.findByNativeProjection(PageRequest.of(1, 2)), 1)
+                .assertNext(projection -> {
+                    assertThat(projection.getUsername()).isEqualTo("member2");
+                    assertThat(projection.getTeamName()).isEqualTo("teamA");
+                })
+                .thenRequest(1)
+                .assertNext(projection -> {
+                    assertThat(projection.getUsername()).isEqualTo("member3");
+                    assertThat(projection.getTeamName()).isNull();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void findByNativeProjectionSorted() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamB));
+        memberRepository.save(new Member("member3", 10));
+        memberRepository.save(new Member("member4", 10, teamB));
+
+        //when, then
+        // teamName desc, 팀이 없는 회원은 마지막. 같은 팀 안에서는 member_id 순서
+        Sort sort = Sort.by(Sort.Order.desc("teamName").nullsLast());
+        StepVerifier.create(memberReactiveRepository.findByNativeProjection(PageRequest.of(0, 10, sort))
+                        .map(MemberProjection::getUsername))
+                .expectNext("member2", "member4", "member1", "member3")
+                .verifyComplete();
+
+        // 지원하지 않는 속성은 쿼리를 실행하지 않고 실패
+        StepVerifier.create(memberReactiveRepository.findByNativeProjection(PageRequest.of(0, 10, Sort.by("age"))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    public void findByUsername() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Member withTeam = memberRepository.save(new Member("member1", 10, teamA));
+        Member withoutTeam = memberRepository.save(new Member("member1", 20));
+        memberRepository.save(new Member("member2", 30, teamA));
+
+        //when, then
+        StepVerifier.create(memberReactiveRepository.findByUsername("member1"))
+                .recordWith(ArrayList::new)
+                .expectNextCount(2)
+                .consumeRecordedWith(dtos -> assertThat(dtos).containsExactlyInAnyOrder(
+                        new MemberDto(withTeam.getId(), "member1", "teamA"),
+                        new MemberDto(withoutTeam.getId(), "member1", null)))
+                .verifyComplete();
+    }
+}
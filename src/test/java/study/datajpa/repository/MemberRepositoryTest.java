@@ -5,10 +5,16 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
@@ -17,10 +23,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.support.WindowIterator;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.TestResources;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
+@ResourceLock(value = TestResources.DATABASE, mode = ResourceAccessMode.READ)
 @SpringBootTest
 @Transactional
 //@Rollback(false)
@@ -309,6 +320,25 @@ class MemberRepositoryTest {
         List<Member> result = memberRepository.findMemberCustom();
     }
 
+    @Test
+    public void findMemberDtoSharesTeamName() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("m1", 0, teamA));
+        em.persist(new Member("m2", 0, teamA));
+        em.flush();
+        em.clear();
+
+        //when
+        List<MemberDto> result = memberRepository.findMemberDto();
+
+        //then
+        // 조회 한 번 안에서 같은 팀 이름은 같은 String 인스턴스
+        assertThat(result).extracting(MemberDto::username).containsExactlyInAnyOrder("m1", "m2");
+        assertThat(result.get(0).teamName()).isSameAs(result.get(1).teamName());
+    }
+
     @Test
     public void projections() {
         //given
@@ -430,4 +460,194 @@ class MemberRepositoryTest {
             System.out.println("memberProjection.getTeamName() = " + memberProjection.getTeamName());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void recordProjections() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        Member m1 = new Member("m1", 10, teamA);
+        Member m2 = new Member("m2", 20, null);
+        em.persist(m1);
+        em.persist(m2);
+
+        em.flush();
+        em.clear();
+
+        //when
+        List<UsernameOnly> usernameOnly = memberRepository.findUsernameOnlyByUsername("m1");
+        List<NestedClosedProjections> nested = memberRepository.findNestedClosedProjectionsByUsername("m1");
+        List<NestedClosedProjections> nestedWithoutTeam = memberRepository.findNestedClosedProjectionsByUsername("m2");
+        Page<MemberProjection> page = memberRepository.findMemberProjections(PageRequest.of(0, 10));
+
+        //then
+        assertThat(usernameOnly).extracting(UsernameOnly::getUsernameAndAge).containsExactly("m1 10");
+        assertThat(nested.get(0).getTeam().getName()).isEqualTo("teamA");
+        assertThat(nestedWithoutTeam.get(0).getTeam()).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(MemberProjection::getTeamName).containsExactly("teamA", null);
+    }
+
+    @Test
+    public void findMemberProjectionsSorted() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("m1", 10, teamB));
+        em.persist(new Member("m2", 10, teamA));
+        em.persist(new Member("m3", 10));
+        em.persist(new Member("m4", 10, teamA));
+        em.flush();
+        em.clear();
+
+        //when
+        Page<MemberProjection> byTeam = memberRepository.findMemberProjections(
+                PageRequest.of(0, 3, Sort.by(Sort.Order.desc("teamName").nullsLast())));
+        Page<MemberProjection> byUsername = memberRepository.findMemberProjections(
+                PageRequest.of(1, 2, Sort.by(Direction.DESC, "username")));
+
+        //then
+        // 같은 팀 이름은 id 순
+        assertThat(byTeam.getContent()).extracting(MemberProjection::getUsername).containsExactly("m1", "m2", "m4");
+        assertThat(byUsername.getContent()).extracting(MemberProjection::getUsername).containsExactly("m2", "m1");
+        assertThatThrownBy(() -> memberRepository.findMemberProjections(PageRequest.of(0, 10, Sort.by("age"))))
+                .hasMessageContaining("Unsupported sort property");
+    }
+
+    @Test
+    public void findByCondition() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.flush();
+        em.clear();
+
+        //when
+        List<Member> byAgeRange = memberRepository.findByCondition(MemberSearchCondition.of(null, 15, 35, null));
+        List<Member> byTeam = memberRepository.findByCondition(MemberSearchCondition.of(null, 25, null, "teamB"));
+        List<Member> withTeam = memberRepository.findByCondition(
+                MemberSearchCondition.of("member1", null, null, null).withFetchTeam());
+
+        //then
+        assertThat(byAgeRange).extracting(Member::getUsername).containsExactly("member2", "member3");
+        // 팀 이름으로 필터링만 하고 team을 가져오지는 않음
+        assertThat(byTeam).extracting(Member::getUsername).containsExactly("member3", "member4");
+        assertThat(Hibernate.isInitialized(byTeam.get(0).getTeam())).isFalse();
+        assertThat(Hibernate.isInitialized(withTeam.get(0).getTeam())).isTrue();
+    }
+
+    @Test
+    public void iterateModifiedSince() {
+        //given
+        Instant since = Instant.now().minusSeconds(1);
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("member" + i, 10 * i));
+        }
+        em.flush();
+        em.clear();
+
+        //when
+        // 같은 lastModifiedDate를 가진 행이 있어도 id로 이어서 읽으므로 누락/중복이 없다.
+        WindowIterator<Member> iterator = memberRepository.iterateModifiedSince(since, 2);
+        List<String> usernames = new ArrayList<>();
+        iterator.forEachRemaining(member -> usernames.add(member.getUsername()));
+
+        //then
+        assertThat(usernames).containsExactly("member1", "member2", "member3", "member4", "member5");
+        assertThat(memberRepository.iterateModifiedSince(Instant.now().plusSeconds(86400), 2).hasNext()).isFalse();
+    }
+
+    @Test
+    public void fetchPlan() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        em.flush();
+        em.clear();
+
+        //when
+        Member withoutPlan = memberRepository.findById(member1.getId(), FetchPlan.NONE).get();
+        em.clear();
+        Member withTeam = memberRepository.findById(member1.getId(), FetchPlan.of("team")).get();
+        em.clear();
+        List<Member> named = memberRepository.findAll(
+                (root, query, cb) -> cb.ge(root.get("age"), 20), FetchPlan.named("Member.all").load());
+        em.clear();
+        List<Member> byCondition = memberRepository.findByCondition(
+                MemberSearchCondition.of(null, 10, null, null), FetchPlan.of("team"));
+
+        //then
+        assertThat(Hibernate.isInitialized(withoutPlan.getTeam())).isFalse();
+        assertThat(Hibernate.isInitialized(withTeam.getTeam())).isTrue();
+        assertThat(named).extracting(Member::getUsername).containsExactly("member2");
+        assertThat(Hibernate.isInitialized(named.get(0).getTeam())).isTrue();
+        assertThat(byCondition).hasSize(2).allMatch(member -> Hibernate.isInitialized(member.getTeam()));
+    }
+
+    @Test
+    public void nativeRowMapper() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, null));
+
+        //when
+        // flush 하지 않아도 queryNative가 먼저 flush 한다.
+        List<MemberDto> dtos = memberRepository.queryNative(
+                "select m.member_id as id, m.username, t.name as team_name"
+                        + " from member m left join team t on m.team_id = t.team_id order by m.member_id",
+                MemberDto.class);
+        List<UsernameOnlyView> views;
+        try (Stream<UsernameOnlyView> stream = memberRepository.streamNative(
+                "select username, age from member where age >= ? order by age", UsernameOnlyView.class, 1, 10)) {
+            views = stream.toList();
+        }
+
+        //then
+        assertThat(dtos).extracting(MemberDto::username).containsExactly("member1", "member2");
+        assertThat(dtos).extracting(MemberDto::teamName).containsExactly("teamA", null);
+        assertThat(views).containsExactly(new UsernameOnlyView("member1", 10), new UsernameOnlyView("member2", 20));
+    }
+
+    @Test
+    public void usernameKeyLookup() {
+        //given
+        Member member1 = memberRepository.save(new Member("Alice", 10));
+        memberRepository.save(new Member("alicia", 20));
+        memberRepository.save(new Member("Bob", 30));
+        em.flush();
+        em.clear();
+
+        //when
+        List<Member> exact = memberRepository.findByUsernameIndexed("Alice");
+        List<Member> ignoreCase = memberRepository.findByUsernameIgnoreCaseIndexed("ALICE");
+        Slice<Member> prefix = memberRepository.findByUsernamePrefix("Ali", PageRequest.of(0, 10));
+
+        // username을 바꾸면 검색 컬럼도 다시 계산됨 (@PreUpdate)
+        memberRepository.findById(member1.getId()).get().changeUsername("Carol");
+        em.flush();
+        em.clear();
+
+        //then
+        assertThat(exact).extracting(Member::getUsername).containsExactly("Alice");
+        assertThat(memberRepository.findByUsernameIndexed("alice")).isEmpty();
+        assertThat(ignoreCase).extracting(Member::getUsername).containsExactly("Alice");
+        assertThat(prefix.getContent()).extracting(Member::getUsername).containsExactly("Alice", "alicia");
+        assertThat(memberRepository.findByUsernameIgnoreCaseIndexed("carol")).hasSize(1);
+        assertThat(memberRepository.findByUsernameIndexed("Alice")).isEmpty();
+    }
+}
@@ -0,0 +1,92 @@
+package study.datajpa.repository;
+
+import com.sun.management.ThreadMXBean;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+/**
+ * 네이티브 쿼리 + 인터페이스 프로젝션(findByNativeProjection)과 MethodHandle 기반 row mapper(queryNative, streamNative)의
+ * row당 시간/할당량 비교. ./gradlew benchmark 로 실행
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class NativeRowMapperBenchmarkTest {
+    static final int ROWS = 5_000;
+    static final int ROUNDS = 20;
+    static final String SQL = "select m.member_id as id, m.username, t.name as team_name"
+            + " from member m left join team t on m.team_id = t.team_id";
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void nativeMapping() {
+        Team team = new Team("teamA");
+        em.persist(team);
+        for (int i = 0; i < ROWS; i++) {
+            em.persist(new Member("member" + i, i, team));
+        }
+        em.flush();
+        em.clear();
+
+        report("native projection proxy", () -> touch(memberRepository.findByNativeProjection(PageRequest.of(0, ROWS))
+                .getContent(), MemberProjection::getUsername));
+        report("queryNative record     ", () -> touch(memberRepository.queryNative(SQL, MemberProjectionView.class),
+                MemberProjectionView::username));
+        report("queryNative dto        ", () -> touch(memberRepository.queryNative(SQL, MemberDto.class),
+                MemberDto::username));
+        report("streamNative dto       ", () -> {
+            try (Stream<MemberDto> stream = memberRepository.streamNative(SQL, MemberDto.class, 500)) {
+                return stream.mapToLong(dto -> dto.username().length() > 0 ? 1 : 0).sum();
+            }
+        });
+    }
+
+    private void report(String name, RowsSupplier query) {
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // warm up
+        for (int i = 0; i < ROUNDS; i++) {
+            query.run();
+            em.clear();
+        }
+
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long rows = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            rows += query.run();
+            em.clear();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        System.out.printf("%s : %,d bytes/row, %,d ns/row%n", name, allocated / rows, elapsed / rows);
+    }
+
+    // 프록시는 getter 호출 시점에 값을 꺼내오므로 실제로 값을 읽어야 공정한 비교가 된다.
+    private static <T> long touch(List<T> rows, Function<T, String> reader) {
+        return rows.stream().filter(row -> reader.apply(row) != null).count();
+    }
+
+    @FunctionalInterface
+    interface RowsSupplier {
+        long run();
+    }
+}
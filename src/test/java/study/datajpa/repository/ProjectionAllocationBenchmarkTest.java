@@ -0,0 +1,92 @@
+package study.datajpa.repository;
+
+import com.sun.management.ThreadMXBean;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+/**
+ * 프록시 기반 인터페이스 프로젝션과 record 기반 프로젝션의 row당 할당량(bytes/row) 비교.
+ * ./gradlew benchmark 로 실행
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class ProjectionAllocationBenchmarkTest {
+    static final int ROWS = 2_000;
+    static final int ROUNDS = 20;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void allocationPerRow() {
+        Team team = new Team("teamA");
+        em.persist(team);
+        for (int i = 0; i < ROWS; i++) {
+            // 모든 row가 같은 username이어야 username 조건 조회에서 ROWS건이 나옴
+            em.persist(new Member("member", i, team));
+        }
+        em.flush();
+        em.clear();
+
+        report("UsernameOnly proxy          ", () -> memberRepository.findProjectionsByUsername("member"));
+        report("UsernameOnly record         ", () -> memberRepository.findUsernameOnlyByUsername("member"));
+        report("NestedClosedProjections proxy ", () -> memberRepository.findProjectionsDtoByUsername("member",
+                NestedClosedProjections.class));
+        report("NestedClosedProjections record", () -> memberRepository.findNestedClosedProjectionsByUsername("member"));
+        report("MemberProjection native proxy ", () -> memberRepository.findByNativeProjection(PageRequest.of(0, ROWS))
+                .getContent());
+        report("MemberProjection record       ", () -> memberRepository.findMemberProjections(PageRequest.of(0, ROWS))
+                .getContent());
+    }
+
+    private void report(String name, Supplier<List<?>> query) {
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // warm up
+        for (int i = 0; i < ROUNDS; i++) {
+            touch(query.get());
+            em.clear();
+        }
+
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long rows = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            rows += touch(query.get());
+            em.clear();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        System.out.printf("%s : %,d bytes/row, %,d ns/row%n", name, allocated / rows, elapsed / rows);
+    }
+
+    // 프록시는 getter 호출 시점에 값을 꺼내오므로 실제로 값을 읽어야 공정한 비교가 된다.
+    private long touch(List<?> rows) {
+        long hash = 0;
+        for (Object row : rows) {
+            if (row instanceof UsernameOnly usernameOnly) {
+                hash += usernameOnly.getUsernameAndAge().hashCode();
+            } else if (row instanceof NestedClosedProjections nested) {
+                hash += nested.getTeam().getName().hashCode();
+            } else if (row instanceof MemberProjection projection) {
+                hash += projection.getUsername().hashCode();
+            }
+        }
+        return hash == Long.MIN_VALUE ? 0 : rows.size();
+    }
+}
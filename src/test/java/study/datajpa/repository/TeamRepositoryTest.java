@@ -0,0 +1,73 @@
+package study.datajpa.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.TestResources;
+import study.datajpa.dto.TeamMemberStatsDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+@ResourceLock(value = TestResources.DATABASE, mode = ResourceAccessMode.READ)
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void addMemberWithoutLoadingMembers() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        for (int i = 1; i <= 3; i++) {
+            memberRepository.save(new Member("member" + i, 10 * i, teamA));
+        }
+        em.flush();
+        em.clear();
+
+        //when
+        Team findTeam = teamRepository.findById(teamA.getId()).get();
+        memberRepository.save(new Member("member4", 40, findTeam));
+
+        //then
+        // 멤버 추가 시 Team.members 컬렉션을 조회하지 않음
+        assertThat(Hibernate.isInitialized(findTeam.getMembers())).isFalse();
+        em.flush();
+        assertThat(teamRepository.countMembers(teamA.getId())).isEqualTo(4);
+        assertThat(teamRepository.findAverageAge(teamA.getId())).isEqualTo(25.0);
+        assertThat(Hibernate.isInitialized(findTeam.getMembers())).isFalse();
+    }
+
+    @Test
+    public void teamMemberStats() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamA));
+
+        //when
+        List<TeamMemberStatsDto> stats = teamRepository.findTeamMemberStats();
+
+        //then
+        assertThat(stats).extracting(TeamMemberStatsDto::getTeamName, TeamMemberStatsDto::getMemberCount)
+                .contains(tuple("teamA", 2L),
+                        tuple("teamB", 0L));
+    }
+}
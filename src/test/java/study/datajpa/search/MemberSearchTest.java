@@ -0,0 +1,197 @@
+package study.datajpa.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.TestResources;
+import study.datajpa.batch.BatchCheckpointRepository;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+// 색인은 커밋 후에 반영되므로 @Transactional(롤백)을 사용하지 않는다.
+// 정리는 엔티티 단위 삭제(deleteAll)로 해서 색인에서도 지워지도록 한다.
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+class MemberSearchTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberSearchIndex searchIndex;
+
+    @Autowired
+    MemberSearchReindexer reindexer;
+
+    @Autowired
+    BatchCheckpointRepository checkpointRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAll();
+        checkpointRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void substringAndFuzzySearch() {
+        //given
+        memberRepository.save(new Member("kimchi", 10));
+        Member kimbap = memberRepository.save(new Member("kimbap", 20));
+        memberRepository.save(new Member("bibimbap", 30));
+
+        //when, then
+        // 부분 문자열
+        assertThat(usernames(memberRepository.search("bap", PageRequest.of(0, 10))))
+                .containsExactlyInAnyOrder("kimbap", "bibimbap");
+        // 정확히 일치하는 이름이 먼저, 대소문자 무시
+        assertThat(memberRepository.search("KIMBAP", PageRequest.of(0, 10)).getContent().get(0).getId())
+                .isEqualTo(kimbap.getId());
+        // 오타 허용
+        assertThat(usernames(memberRepository.search("kimbab", PageRequest.of(0, 10))))
+                .containsExactly("kimbap");
+        assertThat(memberRepository.search("zzz", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    public void paging() {
+        //given
+        memberRepository.save(new Member("kimbap", 10));
+        memberRepository.save(new Member("bibimbap", 20));
+        memberRepository.save(new Member("kimchi", 30));
+
+        //when
+        Page<Member> page = memberRepository.search("bap", PageRequest.of(1, 1));
+
+        //then
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.hasNext()).isFalse();
+
+        // MAX_RESULTS 이후의 페이지도 전체 건수는 유지
+        Page<Member> beyond = memberRepository.search("bap", PageRequest.of(MemberSearchIndex.MAX_RESULTS / 10, 10));
+        assertThat(beyond.getContent()).isEmpty();
+        assertThat(beyond.getTotalElements()).isEqualTo(2);
+        assertThat(searchIndex.search("bap", MemberSearchIndex.MAX_RESULTS, 10).total()).isEqualTo(2);
+    }
+
+    @Test
+    public void followsCommittedChanges() {
+        //given
+        Member member = memberRepository.save(new Member("kimchi", 10));
+        Member removed = memberRepository.save(new Member("bulgogi", 10));
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.findById(member.getId()).get().changeUsername("japchae"));
+        memberRepository.delete(removed);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.save(new Member("tteokbokki", 10));
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertThat(memberRepository.search("kimchi", PageRequest.of(0, 10))).isEmpty();
+        assertThat(usernames(memberRepository.search("chae", PageRequest.of(0, 10)))).containsExactly("japchae");
+        assertThat(memberRepository.search("bulgogi", PageRequest.of(0, 10))).isEmpty();
+        // 롤백된 저장은 색인하지 않음
+        assertThat(memberRepository.search("tteok", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    public void reindex() {
+        //given
+        for (int i = 0; i < 30; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+        // 색인에서 빠진 회원과, DB에는 없는 회원이 남아 있는 상태
+        Member missing = memberRepository.findByUsername("member7").get(0);
+        searchIndex.delete(missing.getId());
+        searchIndex.index(-1L, "ghost");
+
+        //when
+        long indexed = reindexer.reindex();
+
+        //then
+        assertThat(indexed).isEqualTo(memberRepository.count());
+        assertThat((long) searchIndex.documentCount()).isEqualTo(indexed);
+        assertThat(usernames(memberRepository.search("member7", PageRequest.of(0, 1)))).containsExactly("member7");
+        assertThat(searchIndex.search("ghost", 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    public void bulkDeleteRemovesDocuments() {
+        //given
+        Member kimbap = memberRepository.save(new Member("kimbap", 10));
+        memberRepository.save(new Member("bibimbap", 20));
+
+        //when
+        memberRepository.deleteAllByIdInBatch(List.of(kimbap.getId()));
+
+        //then
+        Page<Member> page = memberRepository.search("bap", PageRequest.of(0, 10));
+        assertThat(usernames(page)).containsExactly("bibimbap");
+        assertThat(page.getTotalElements()).isEqualTo(1);
+
+        memberRepository.deleteAllInBatch();
+        assertThat(searchIndex.documentCount()).isZero();
+    }
+
+    @Test
+    public void searchRemovesDocumentsMissingFromDatabase() {
+        //given
+        memberRepository.save(new Member("kimbap", 10));
+        memberRepository.save(new Member("bibimbap", 20));
+        // JPA 밖에서 지워져 색인에만 남은 회원
+        searchIndex.index(-1L, "bap");
+        searchIndex.index(-2L, "bapbap");
+
+        //when
+        Page<Member> first = memberRepository.search("bap", PageRequest.of(0, 1));
+        Page<Member> second = memberRepository.search("bap", PageRequest.of(1, 1));
+
+        //then
+        assertThat(first.getContent()).hasSize(1);
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(first.getTotalElements()).isEqualTo(2);
+        assertThat(second.getTotalElements()).isEqualTo(2);
+        assertThat(searchIndex.search("bap", 0, 10).ids()).doesNotContain(-1L, -2L);
+    }
+
+    @Test
+    public void reindexDoesNotOverwriteNewerChanges() {
+        //given
+        Member member = memberRepository.save(new Member("kimchi", 10));
+        Member removed = memberRepository.save(new Member("bulgogi", 10));
+        long generation = searchIndex.beginReindex();
+        // 재색인 청크가 읽은 값
+        List<Member> chunk = memberRepository.findAllById(List.of(member.getId(), removed.getId()));
+
+        //when
+        // 청크를 읽은 뒤, 색인하기 전에 커밋된 변경
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.findById(member.getId()).get().changeUsername("japchae"));
+        memberRepository.delete(removed);
+        searchIndex.reindexChunk(chunk);
+        searchIndex.finishReindex(generation);
+
+        //then
+        assertThat(memberRepository.search("kimchi", PageRequest.of(0, 10))).isEmpty();
+        assertThat(usernames(memberRepository.search("chae", PageRequest.of(0, 10)))).containsExactly("japchae");
+        assertThat(searchIndex.search("bulgogi", 0, 10).ids()).isEmpty();
+    }
+
+    private static List<String> usernames(Page<Member> page) {
+        return page.getContent().stream().map(Member::getUsername).toList();
+    }
+}
@@ -0,0 +1,141 @@
+package study.datajpa.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+// 메모리 H2 3개를 샤드로 사용
+@SpringBootTest(properties = {"sharding.enabled=true", "sharding.shard-count=3"})
+class ShardedMemberRepositoryTest {
+    @Autowired
+    ShardedMemberRepository shardedMemberRepository;
+
+    @Autowired
+    ShardRouter shardRouter;
+
+    @AfterEach
+    void cleanUp() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shardedMemberRepository.executeOnShard(shard, () -> {
+                shardedMemberRepository.members().deleteAllInBatch();
+                shardedMemberRepository.teams().deleteAllInBatch();
+                return null;
+            });
+        }
+    }
+
+    @Test
+    public void scatterGatherPaging() {
+        //given
+        List<String> usernames = new ArrayList<>();
+        List<Long> memberIds = new ArrayList<>();
+        for (long teamKey = 1; teamKey <= 6; teamKey++) {
+            String teamName = "team" + teamKey;
+            Team team = shardedMemberRepository.execute(teamKey, () ->
+                    shardedMemberRepository.teams().save(new Team(teamName)));
+            for (int i = 0; i < 3; i++) {
+                String username = "member" + teamKey + "_" + i;
+                Member member = shardedMemberRepository.execute(teamKey, () ->
+                        shardedMemberRepository.members().save(new Member(username, 10, team)));
+                usernames.add(username);
+                memberIds.add(member.getId());
+            }
+        }
+
+        //when
+        Page<Member> page = shardedMemberRepository.findByAge(10,
+                PageRequest.of(1, 4, Sort.by(Direction.DESC, "username")));
+
+        //then
+        List<String> expected = usernames.stream().sorted(Comparator.reverseOrder()).toList().subList(4, 8);
+        assertThat(page.getContent()).extracting(Member::getUsername).containsExactlyElementsOf(expected);
+        assertThat(page.getTotalElements()).isEqualTo(18);
+        assertThat(shardedMemberRepository.count()).isEqualTo(18);
+        // id 생성기는 기본 샤드만 사용하므로 샤드가 달라도 id가 겹치지 않음
+        assertThat(memberIds).doesNotHaveDuplicates();
+        // 데이터가 여러 샤드에 나뉘어 저장됨
+        long usedShards = IntStream.range(0, shardRouter.getShardCount())
+                .filter(shard -> shardedMemberRepository.executeOnShard(shard,
+                        () -> shardedMemberRepository.members().count()) > 0)
+                .count();
+        assertThat(usedShards).isGreaterThan(1);
+    }
+
+    @Test
+    public void mergeSortedShardResults() {
+        //given
+        List<List<Integer>> shards = List.of(List.of(1, 4, 7), List.of(), List.of(2, 2, 9), List.of(3));
+
+        //when
+        List<Integer> merged = ShardedMemberRepository.merge(shards, Comparator.naturalOrder(), 5);
+
+        //then
+        // 앞에서부터 limit건만 꺼냄
+        assertThat(merged).containsExactly(1, 2, 2, 3, 4);
+        assertThat(ShardedMemberRepository.merge(shards, Comparator.naturalOrder(), 100))
+                .containsExactly(1, 2, 2, 3, 4, 7, 9);
+    }
+
+    @Test
+    public void scatterGatherSortedByTeamName() {
+        //given
+        // 대소문자가 섞인 팀 이름. 팀 키마다 다른 샤드에 저장됨
+        String[] teamNames = {"alpha", "Bravo", "charlie", "Delta", "echo", "Foxtrot"};
+        List<String[]> rows = new ArrayList<>();
+        for (long teamKey = 1; teamKey <= teamNames.length; teamKey++) {
+            String teamName = teamNames[(int) teamKey - 1];
+            Team team = shardedMemberRepository.execute(teamKey, () ->
+                    shardedMemberRepository.teams().save(new Team(teamName)));
+            for (int i = 0; i < 2; i++) {
+                String username = "member" + teamKey + "_" + i;
+                shardedMemberRepository.execute(teamKey, () ->
+                        shardedMemberRepository.members().save(new Member(username, 10, team)));
+                rows.add(new String[]{teamName, username});
+            }
+        }
+
+        //when
+        Page<Member> page = shardedMemberRepository.findByAge(10, PageRequest.of(1, 4,
+                Sort.by(Sort.Order.desc("team.name").ignoreCase(), Sort.Order.asc("username"))));
+
+        //then
+        List<String> expected = rows.stream()
+                .sorted(Comparator.<String[], String>comparing(row -> row[0].toLowerCase()).reversed()
+                        .thenComparing(row -> row[1]))
+                .map(row -> row[1])
+                .toList()
+                .subList(4, 8);
+        assertThat(page.getContent()).extracting(Member::getUsername).containsExactlyElementsOf(expected);
+        // 정렬 키를 샤드 트랜잭션 안에서 읽었으므로 준영속 상태에서도 team 이름을 읽을 수 있음
+        assertThat(page.getContent()).extracting(member -> member.getTeam().getName())
+                .containsExactly("Delta", "Delta", "charlie", "charlie");
+    }
+
+    @Test
+    public void keyComparatorNullHandling() {
+        //given
+        List<Object[]> keys = new ArrayList<>(List.of(new Object[]{"b"}, new Object[]{null}, new Object[]{"a"}));
+
+        //when, then
+        // 지정하지 않으면 null이 가장 작은 값
+        keys.sort(ShardedMemberRepository.keyComparator(Sort.by(Direction.DESC, "team.name")));
+        assertThat(keys).extracting(key -> key[0]).containsExactly("b", "a", null);
+        keys.sort(ShardedMemberRepository.keyComparator(Sort.by(Sort.Order.desc("team.name").nullsFirst())));
+        assertThat(keys).extracting(key -> key[0]).containsExactly(null, "b", "a");
+        keys.sort(ShardedMemberRepository.keyComparator(Sort.by(Sort.Order.asc("team.name").nullsLast())));
+        assertThat(keys).extracting(key -> key[0]).containsExactly("a", "b", null);
+    }
+}
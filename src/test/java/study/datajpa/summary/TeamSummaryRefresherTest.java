@@ -0,0 +1,84 @@
+package study.datajpa.summary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.TeamSummary;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+// 롤백 테스트지만 team_summary 전체를 지우고 다시 만드므로 다른 테스트와 동시에 실행하지 않음
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+@Transactional
+class TeamSummaryRefresherTest {
+    @Autowired
+    TeamSummaryRefresher teamSummaryRefresher;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void refresh() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 15, teamA));
+        memberRepository.save(new Member("member2", 25, teamA));
+        memberRepository.save(new Member("member3", 45, teamA));
+        em.flush();
+        em.clear();
+
+        //when
+        int teams = teamSummaryRefresher.refresh();
+
+        //then
+        assertThat(teams).isEqualTo(2);
+        TeamSummary summaryA = teamRepository.findSummary(teamA.getId()).get();
+        assertThat(summaryA.getMemberCount()).isEqualTo(3);
+        assertThat(summaryA.getAverageAge()).isEqualTo(85 / 3.0);
+        assertThat(summaryA.getMinAge()).isEqualTo(15);
+        assertThat(summaryA.getMaxAge()).isEqualTo(45);
+        assertThat(List.of(summaryA.getAgeUnder20(), summaryA.getAge20s(), summaryA.getAge30s(),
+                summaryA.getAge40AndOver())).containsExactly(1L, 1L, 0L, 1L);
+        assertThat(summaryA.getRefreshedAt()).isNotNull();
+
+        // 회원이 없는 팀도 0으로 요약
+        assertThat(teamRepository.findSummaries())
+                .extracting(TeamSummary::getTeamName, TeamSummary::getMemberCount)
+                .containsExactly(tuple("teamA", 3L), tuple("teamB", 0L));
+    }
+
+    @Test
+    public void readThrough() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        em.flush();
+        teamRepository.deleteSummaries();
+
+        //when
+        // 요약이 비어 있으면 조회 전에 재계산
+        List<TeamSummary> summaries = teamSummaryRefresher.findSummaries();
+
+        //then
+        assertThat(summaries).extracting(TeamSummary::getTeamName).containsExactly("teamA");
+    }
+}
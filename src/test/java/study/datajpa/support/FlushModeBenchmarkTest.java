@@ -0,0 +1,88 @@
+package study.datajpa.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 회원 N명이 영속성 컨텍스트에 있는 트랜잭션에서 이름 변경과 조회를 번갈아 실행할 때 flush 횟수와 시간.
+ * AUTO는 조회마다 flush, @TransactionFlushMode(COMMIT)은 커밋 시 한 번.
+ * 조회 대상은 변경하지 않은 회원이지만 stale-check는 테이블 단위로 판단하므로 COMMIT에서도 경고가 남는다.
+ * 기본 설정(warn, 트랜잭션당 한 번 확인/로그)과 off(StaleCheckOff)를 나란히 측정한다.
+ * ./gradlew benchmark --tests '*FlushModeBenchmarkTest*' 로 실행
+ */
+@Tag("benchmark")
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest(properties = "transaction-flush-mode.stale-check=warn")
+@Import(FlushModeTestService.class)
+class FlushModeBenchmarkTest {
+    static final int MEMBERS = 5_000;
+    static final int QUERIES = 500;
+    static final int ROUNDS = 5;
+
+    @Autowired
+    FlushModeTestService service;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Value("${transaction-flush-mode.stale-check}")
+    String staleCheck;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        memberRepository.saveAll(IntStream.range(0, MEMBERS).mapToObj(i -> new Member("member" + i, i % 100)).toList());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        statistics.setStatisticsEnabled(false);
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void flushCountByFlushMode() {
+        // 워밍업
+        service.renameWhileQuerying("warmup", QUERIES);
+        service.renameWhileQueryingDeferred("warmup", QUERIES);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            measure("AUTO", () -> service.renameWhileQuerying("auto", QUERIES));
+            measure("COMMIT", () -> service.renameWhileQueryingDeferred("commit", QUERIES));
+        }
+    }
+
+    private void measure(String mode, Runnable task) {
+        statistics.clear();
+        long start = System.nanoTime();
+        task.run();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("flushMode=%s, stale-check=%s, managed=%d, queries=%d, flushes=%d, elapsed=%.1f ms%n",
+                mode, staleCheck, MEMBERS, QUERIES, statistics.getFlushCount(), elapsed / 1e6);
+    }
+
+    @SpringBootTest(properties = "transaction-flush-mode.stale-check=off")
+    @Import(FlushModeTestService.class)
+    static class StaleCheckOff extends FlushModeBenchmarkTest {
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.support;
+
+import java.util.List;
+import org.hibernate.FlushMode;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+/**
+ * 회원 이름 변경과 조회를 섞어서 실행하는 서비스. flush 모드별로 같은 작업을 실행한다.
+ * (@Import로 TransactionFlushModeTest, FlushModeBenchmarkTest에서만 등록)
+ */
+@Transactional
+class FlushModeTestService {
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+
+    FlushModeTestService(MemberRepository memberRepository, TeamRepository teamRepository) {
+        this.memberRepository = memberRepository;
+        this.teamRepository = teamRepository;
+    }
+
+    // 기본(AUTO): 조회마다 영속성 컨텍스트 전체를 dirty check 하고 변경이 있으면 flush
+    public int renameWhileQuerying(String prefix, int queries) {
+        return doRenameWhileQuerying(prefix, queries);
+    }
+
+    @TransactionFlushMode(FlushMode.COMMIT)
+    public int renameWhileQueryingDeferred(String prefix, int queries) {
+        return doRenameWhileQuerying(prefix, queries);
+    }
+
+    // 조회할 때마다 다른 회원 이름을 변경. 조회 대상 회원은 변경하지 않은 회원
+    private int doRenameWhileQuerying(String prefix, int queries) {
+        List<Member> members = memberRepository.findAll();
+        int found = 0;
+        for (int i = 0; i < queries; i++) {
+            members.get(i % members.size()).changeUsername(prefix + i);
+            found += memberRepository.findByUsername(members.get(members.size() - 1).getUsername()).size();
+        }
+        return found;
+    }
+
+    // 회원 이름을 바꾸고 팀만 조회 -> flush 되지 않은 변경과 상관없는 조회
+    @TransactionFlushMode(FlushMode.COMMIT)
+    public long renameThenCountTeams(Long memberId, String username) {
+        memberRepository.findById(memberId).get().changeUsername(username);
+        return teamRepository.count();
+    }
+
+    // 회원 이름을 바꾸고 바뀐 이름으로 조회 -> flush 전이므로 조회 결과에 반영되지 않음
+    @TransactionFlushMode(FlushMode.COMMIT)
+    public List<Member> renameThenFind(Long memberId, String username) {
+        memberRepository.findById(memberId).get().changeUsername(username);
+        return memberRepository.findByUsername(username);
+    }
+
+    @TransactionFlushMode(FlushMode.MANUAL)
+    public void renameWithoutFlush(Long memberId, String username) {
+        memberRepository.findById(memberId).get().changeUsername(username);
+    }
+}
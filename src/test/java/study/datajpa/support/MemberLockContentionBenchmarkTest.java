@@ -0,0 +1,113 @@
+package study.datajpa.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+/**
+ * 같은 Member row 몇 개를 여러 스레드가 동시에 수정할 때 비관적 락(PESSIMISTIC_WRITE)과
+ * 낙관적 락(@Version + 재시도)의 처리 시간을 비교한다.
+ * ./gradlew benchmark 로 실행
+ */
+@Tag("benchmark")
+@SpringBootTest
+class MemberLockContentionBenchmarkTest {
+    static final int THREADS = 16;
+    static final int UPDATES_PER_THREAD = 50;
+    static final int HOT_ROWS = 4;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    OptimisticLockRetryExecutor retryExecutor;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void pessimisticVsOptimistic() throws Exception {
+        List<String> usernames = seed("pessimistic");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long pessimisticNanos = run(() -> {
+            String username = usernames.get(ThreadLocalRandom.current().nextInt(HOT_ROWS));
+            transactionTemplate.executeWithoutResult(status ->
+                    memberRepository.findLockByUsername(username).get(0).increaseAge());
+        });
+        assertTotalAge(usernames);
+
+        List<String> optimisticUsernames = seed("optimistic");
+        long optimisticNanos = run(() -> {
+            String username = optimisticUsernames.get(ThreadLocalRandom.current().nextInt(HOT_ROWS));
+            retryExecutor.execute(100, () -> {
+                memberRepository.findByUsername(username).get(0).increaseAge();
+                return null;
+            });
+        });
+        assertTotalAge(optimisticUsernames);
+
+        int total = THREADS * UPDATES_PER_THREAD;
+        System.out.printf("threads=%d, updates=%d, hotRows=%d%n", THREADS, total, HOT_ROWS);
+        System.out.printf("pessimistic: %d ms (%.1f updates/s)%n",
+                pessimisticNanos / 1_000_000, total / (pessimisticNanos / 1e9));
+        System.out.printf("optimistic : %d ms (%.1f updates/s)%n",
+                optimisticNanos / 1_000_000, total / (optimisticNanos / 1e9));
+    }
+
+    private List<String> seed(String prefix) {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < HOT_ROWS; i++) {
+            String username = prefix + i;
+            memberRepository.save(new Member(username, 0));
+            usernames.add(username);
+        }
+        return usernames;
+    }
+
+    private long run(Runnable update) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        update.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void assertTotalAge(List<String> usernames) {
+        int totalAge = usernames.stream()
+                .mapToInt(username -> memberRepository.findByUsername(username).get(0).getAge())
+                .sum();
+        assertThat(totalAge).isEqualTo(THREADS * UPDATES_PER_THREAD);
+    }
+}
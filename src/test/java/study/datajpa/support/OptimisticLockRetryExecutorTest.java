@@ -0,0 +1,83 @@
+package study.datajpa.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+// 재시도 시 실제로 커밋되어야 하므로 @Transactional(롤백)을 사용하지 않고 직접 정리한다.
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+class OptimisticLockRetryExecutorTest {
+    @Autowired
+    OptimisticLockRetryExecutor retryExecutor;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void retryOnConflict() {
+        //given
+        Long memberId = memberRepository.save(new Member("member1", 10)).getId();
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        retryExecutor.run(() -> {
+            Member member = memberRepository.findById(memberId).get();
+            if (attempts.incrementAndGet() == 1) {
+                // 첫 시도 중에 다른 트랜잭션이 먼저 수정 -> 커밋 시 version 충돌
+                updateInNewTransaction(memberId);
+            }
+            member.increaseAge();
+        });
+
+        //then
+        assertThat(attempts.get()).isEqualTo(2);
+        Member findMember = memberRepository.findById(memberId).get();
+        assertThat(findMember.getAge()).isEqualTo(12);
+        assertThat(findMember.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    public void giveUpAfterMaxAttempts() {
+        //given
+        Long memberId = memberRepository.save(new Member("member1", 10)).getId();
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when then
+        assertThatThrownBy(() -> retryExecutor.execute(3, () -> {
+            attempts.incrementAndGet();
+            Member member = memberRepository.findById(memberId).get();
+            updateInNewTransaction(memberId);
+            member.increaseAge();
+            return member;
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    private void updateInNewTransaction(Long memberId) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.executeWithoutResult(status -> memberRepository.findById(memberId).get().increaseAge());
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import study.datajpa.TestResources;
+
+// 조회만 하므로 READ. MockMvc는 요청을 테스트 스레드에서 처리하므로 요청 후 스레드에 남은 마감 시각을 확인할 수 있다.
+@ResourceLock(value = TestResources.DATABASE, mode = ResourceAccessMode.READ)
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestDeadlineInterceptorTest {
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void deadlineAnnotationAndHeader() throws Exception {
+        // @Deadline(millis = 3000)
+        mockMvc.perform(get("/members"))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(RequestDeadlineInterceptor.TIMEOUT_ATTRIBUTE, Duration.ofMillis(3000)));
+        // 헤더로 더 짧게 줄일 수 있음
+        mockMvc.perform(get("/members").header(RequestDeadlineInterceptor.TIMEOUT_HEADER, "1000"))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(RequestDeadlineInterceptor.TIMEOUT_ATTRIBUTE, Duration.ofMillis(1000)));
+        // 더 길게는 안 됨
+        mockMvc.perform(get("/members").header(RequestDeadlineInterceptor.TIMEOUT_HEADER, "60000"))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(RequestDeadlineInterceptor.TIMEOUT_ATTRIBUTE, Duration.ofMillis(3000)));
+        // @Deadline이 없으면 request-deadline.default
+        mockMvc.perform(get("/members/scroll"))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(RequestDeadlineInterceptor.TIMEOUT_ATTRIBUTE, Duration.ofSeconds(5)));
+        assertThat(RequestDeadline.remaining()).isEmpty();
+    }
+
+    @Test
+    public void invalidHeaderRejected() throws Exception {
+        for (String header : new String[]{"0", "-1", "abc"}) {
+            mockMvc.perform(get("/members").header(RequestDeadlineInterceptor.TIMEOUT_HEADER, header))
+                    .andExpect(status().isBadRequest());
+        }
+        assertThat(RequestDeadline.remaining()).isEmpty();
+    }
+
+    @Test
+    public void asyncRequestDoesNotLeakDeadline() throws Exception {
+        //given
+        MvcResult stream = mockMvc.perform(get("/stream/members/dto")
+                        .header(RequestDeadlineInterceptor.TIMEOUT_HEADER, "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        // 첫 dispatch가 끝나면(afterConcurrentHandlingStarted) 요청 스레드에서 마감 시각이 지워져야 함
+        assertThat(RequestDeadline.remaining()).isEmpty();
+        stream.getAsyncResult(5000);
+
+        // 같은 스레드의 다음 요청은 이전 요청의 (지난) 마감 시각에 영향을 받지 않음
+        Thread.sleep(5);
+        mockMvc.perform(get("/members"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,69 @@
+package study.datajpa.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.TestResources;
+import study.datajpa.repository.MemberRepository;
+
+// 트랜잭션 시작 시점의 timeout을 확인해야 하므로 @Transactional을 사용하지 않는다. (데이터는 쓰지 않음)
+@ResourceLock(value = TestResources.DATABASE, mode = ResourceAccessMode.READ)
+@SpringBootTest
+class RequestDeadlineTest {
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void transactionTimeoutFollowsDeadline() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // 마감 시각이 없으면 (백그라운드 작업) timeout 없음
+        assertThat(transactionTemplate.execute(status -> currentHolder().hasTimeout())).isFalse();
+
+        try (RequestDeadline.Scope scope = RequestDeadline.start(Duration.ofMillis(1500))) {
+            // 남은 시간(올림)으로 줄어듦
+            assertThat(transactionTemplate.execute(status -> timeToLive())).isLessThanOrEqualTo(2);
+
+            // 메소드별 timeout이 더 짧으면 그 값 사용
+            transactionTemplate.setTimeout(1);
+            assertThat(transactionTemplate.execute(status -> timeToLive())).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void expiredDeadline() {
+        try (RequestDeadline.Scope scope = RequestDeadline.start(Duration.ZERO)) {
+            assertThatThrownBy(() -> memberRepository.findAll())
+                    .isInstanceOf(TransactionTimedOutException.class);
+        }
+        // scope가 닫히면 마감 시각이 사라짐
+        assertThat(RequestDeadline.remaining()).isEmpty();
+        memberRepository.findAll();
+    }
+
+    private int timeToLive() {
+        return currentHolder().getTimeToLiveInSeconds();
+    }
+
+    private EntityManagerHolder currentHolder() {
+        return (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+    }
+}
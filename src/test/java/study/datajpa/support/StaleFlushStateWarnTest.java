@@ -0,0 +1,52 @@
+package study.datajpa.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Import;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+// 기본 설정(warn)에서 stale 조회 경고가 트랜잭션당 한 번만 남는지 확인. 서비스 메소드가 커밋하므로 직접 정리
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest(properties = "transaction-flush-mode.stale-check=warn")
+@Import(FlushModeTestService.class)
+@ExtendWith(OutputCaptureExtension.class)
+class StaleFlushStateWarnTest {
+    static final String WARNING = "does not see unflushed changes";
+
+    @Autowired
+    FlushModeTestService service;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void warnOncePerTransaction(CapturedOutput output) {
+        //given
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+
+        //when
+        // 이름 변경과 member 조회를 20번 반복하는 트랜잭션 2개
+        service.renameWhileQueryingDeferred("first", 20);
+        service.renameWhileQueryingDeferred("second", 20);
+
+        //then
+        assertThat(output.getOut().split(WARNING, -1)).hasSize(3);
+    }
+}
@@ -0,0 +1,98 @@
+package study.datajpa.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.TestResources;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+// flush 모드는 커밋 시점 동작까지 확인해야 하므로 @Transactional(롤백)을 사용하지 않고 직접 정리한다.
+@ResourceLock(TestResources.DATABASE)
+@SpringBootTest
+@Import(FlushModeTestService.class)
+class TransactionFlushModeTest {
+    @Autowired
+    FlushModeTestService service;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void commitModeFlushesAtCommit() {
+        //given
+        Long memberId = memberRepository.save(new Member("member1", 10)).getId();
+
+        //when
+        service.renameThenCountTeams(memberId, "renamed");
+
+        //then
+        assertThat(memberRepository.findById(memberId).get().getUsername()).isEqualTo("renamed");
+    }
+
+    @Test
+    public void staleQueryDetected() {
+        //given
+        Long memberId = memberRepository.save(new Member("member1", 10)).getId();
+
+        //when, then
+        // 변경된 member 테이블을 flush 전에 조회 -> stale-check: fail (테스트 프로필)
+        assertThatThrownBy(() -> service.renameThenFind(memberId, "renamed"))
+                .isInstanceOf(StaleFlushStateException.class)
+                .hasMessageContaining("Member#" + memberId);
+        // 예외로 트랜잭션 롤백
+        assertThat(memberRepository.findById(memberId).get().getUsername()).isEqualTo("member1");
+    }
+
+    @Test
+    public void manualModeDoesNotFlush() {
+        //given
+        Long memberId = memberRepository.save(new Member("member1", 10)).getId();
+
+        //when
+        service.renameWithoutFlush(memberId, "renamed");
+
+        //then
+        assertThat(memberRepository.findById(memberId).get().getUsername()).isEqualTo("member1");
+    }
+
+    @Test
+    public void joinedTransactionRestoresFlushMode() {
+        //given
+        Long memberId = memberRepository.save(new Member("member1", 10)).getId();
+
+        //when
+        FlushMode after = new TransactionTemplate(transactionManager).execute(status -> {
+            service.renameThenCountTeams(memberId, "renamed");
+            return em.unwrap(Session.class).getHibernateFlushMode();
+        });
+
+        //then
+        // 바깥 트랜잭션에 참여했으면 메소드가 끝난 뒤 원래 모드로 돌아오고, 변경은 바깥 트랜잭션 커밋 시 반영
+        assertThat(after).isEqualTo(FlushMode.AUTO);
+        assertThat(memberRepository.findById(memberId).get().getUsername()).isEqualTo("renamed");
+    }
+}
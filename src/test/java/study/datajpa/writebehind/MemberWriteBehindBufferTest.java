@@ -0,0 +1,222 @@
+package study.datajpa.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.cache.MemberCache;
+import study.datajpa.entity.Member;
+import study.datajpa.outbox.OutboxEvent;
+import study.datajpa.outbox.OutboxEventRepository;
+import study.datajpa.outbox.OutboxRecorder;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.search.MemberSearchIndex;
+
+// flush는 별도 트랜잭션에서 커밋되므로 @Transactional(롤백)을 사용하지 않는다.
+// 스케줄러가 먼저 flush 하지 않도록 주기를 길게 설정. outbox 이벤트를 확인하므로 relay도 멈춤
+@SpringBootTest(properties = {
+        "member-write-behind.enabled=true",
+        "member-write-behind.flush-interval=3600000",
+        "member-write-behind.max-entries=3",
+        "outbox.relay.fixed-delay=3600000"
+})
+class MemberWriteBehindBufferTest {
+    @Autowired
+    MemberWriteBehindBuffer buffer;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    OutboxRecorder outboxRecorder;
+
+    @Autowired
+    MemberCache memberCache;
+
+    @Autowired
+    MemberSearchIndex searchIndex;
+
+    @Autowired
+    AuditorAware<UUID> auditorAware;
+
+    @AfterEach
+    void cleanUp() {
+        buffer.flush();
+        memberRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void coalesceAndFlush() {
+        //given
+        Member member = memberRepository.save(new Member("member1", 10));
+        Long version = memberRepository.findById(member.getId()).get().getVersion();
+
+        //when
+        buffer.changeUsername(member.getId(), "member2");
+        buffer.increaseAge(member.getId());
+        buffer.changeUsername(member.getId(), "member3");
+        buffer.addAge(member.getId(), 5);
+
+        //then
+        // flush 전에는 DB에 반영되지 않음
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+        assertThat(memberRepository.findById(member.getId()).get().getUsername()).isEqualTo("member1");
+
+        // 네 번의 변경이 update 한 번으로 반영됨
+        assertThat(buffer.flush()).isEqualTo(1);
+        Member flushed = memberRepository.findById(member.getId()).get();
+        assertThat(flushed.getUsername()).isEqualTo("member3");
+        assertThat(flushed.getAge()).isEqualTo(16);
+        assertThat(flushed.getVersion()).isEqualTo(version + 1);
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    public void flushWhenFull() {
+        //given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+        Member member2 = memberRepository.save(new Member("member2", 20));
+        Member member3 = memberRepository.save(new Member("member3", 30));
+
+        //when
+        buffer.increaseAge(member1.getId());
+        buffer.increaseAge(member2.getId());
+        buffer.increaseAge(member3.getId());    // max-entries(3) 도달 -> 바로 flush
+
+        //then
+        assertThat(buffer.pendingCount()).isZero();
+        assertThat(memberRepository.findById(member3.getId()).get().getAge()).isEqualTo(31);
+    }
+
+    @Test
+    public void isolateFailingRow() {
+        //given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+        Member member2 = memberRepository.save(new Member("member2", 20));
+        outboxEventRepository.deleteAllInBatch();
+
+        //when
+        buffer.changeUsername(member1.getId(), "renamed");
+        // username 컬럼(255)보다 길어서 항상 실패하는 row
+        buffer.changeUsername(member2.getId(), "x".repeat(300));
+
+        //then
+        // 배치가 실패하면 한 건씩 다시 써서 실패하는 row만 버림
+        assertThat(buffer.flush()).isEqualTo(1);
+        assertThat(buffer.pendingCount()).isZero();
+        assertThat(buffer.failedCount()).isEqualTo(1);
+        assertThat(memberRepository.findById(member1.getId()).get().getUsername()).isEqualTo("renamed");
+        assertThat(memberRepository.findById(member2.getId()).get().getUsername()).isEqualTo("member2");
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAggregateId)
+                .containsExactly(member1.getId());
+    }
+
+    @Test
+    public void skipDeletedMember() {
+        //given
+        Member member = memberRepository.save(new Member("member1", 10));
+        memberRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+
+        //when
+        buffer.increaseAge(member.getId());
+
+        //then
+        // update된 row가 없으면 재시도하지 않고, outbox 이벤트도 남기지 않음
+        assertThat(buffer.flush()).isZero();
+        assertThat(buffer.pendingCount()).isZero();
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    public void rejectWhenFullAndFlushFails() {
+        //given
+        // DB에 연결할 수 없는 상태
+        JdbcTemplate unavailable = mock(JdbcTemplate.class);
+        when(unavailable.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database is down"));
+        MemberWriteBehindBuffer unavailableBuffer = new MemberWriteBehindBuffer(unavailable, transactionManager,
+                outboxRecorder, memberCache, searchIndex, auditorAware, 2, Duration.ofSeconds(1));
+
+        //when
+        unavailableBuffer.increaseAge(1L);
+        // 가득 참 -> flush 실패. 변경은 버퍼에 들어갔으므로 예외를 던지지 않음
+        unavailableBuffer.increaseAge(2L);
+        // 이미 대기 중인 회원의 변경은 합쳐짐
+        unavailableBuffer.increaseAge(1L);
+
+        //then
+        assertThat(unavailableBuffer.pendingCount()).isEqualTo(2);
+        assertThatThrownBy(() -> unavailableBuffer.increaseAge(3L))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(unavailableBuffer.pendingCount()).isEqualTo(2);
+        assertThat(unavailableBuffer.failedCount()).isZero();
+    }
+
+    @Test
+    public void shutdownRetriesUntilWritten() {
+        //given
+        // 두 번은 연결 실패, 그 다음에 성공
+        JdbcTemplate flaky = mock(JdbcTemplate.class);
+        when(flaky.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database is down"))
+                .thenThrow(new DataAccessResourceFailureException("database is down"))
+                .thenReturn(new int[]{0});
+        MemberWriteBehindBuffer flakyBuffer = new MemberWriteBehindBuffer(flaky, transactionManager,
+                outboxRecorder, memberCache, searchIndex, auditorAware, 10, Duration.ofSeconds(5));
+        flakyBuffer.increaseAge(1L);
+
+        //when
+        flakyBuffer.shutdown();
+
+        //then
+        assertThat(flakyBuffer.pendingCount()).isZero();
+        verify(flaky, times(3)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        // 종료 후에는 새 변경을 받지 않음
+        assertThatThrownBy(() -> flakyBuffer.increaseAge(2L)).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void shutdownGivesUpAfterTimeout() {
+        //given
+        JdbcTemplate unavailable = mock(JdbcTemplate.class);
+        when(unavailable.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database is down"));
+        MemberWriteBehindBuffer unavailableBuffer = new MemberWriteBehindBuffer(unavailable, transactionManager,
+                outboxRecorder, memberCache, searchIndex, auditorAware, 10, Duration.ofMillis(300));
+        unavailableBuffer.increaseAge(1L);
+
+        //when
+        long start = System.nanoTime();
+        unavailableBuffer.shutdown();
+
+        //then
+        // 제한 시간이 지나면 남은 변경을 로그로 남기고 종료
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(unavailableBuffer.pendingCount()).isEqualTo(1);
+    }
+}